@@ -0,0 +1,223 @@
+package com.appium.cache;
+
+import com.appium.impact.ImpactRecorder;
+import com.appium.impact.TestFootprint;
+import com.appium.retry.RetryPolicy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * ElementCache - Remembers element handles so stable widgets are only looked up once per screen.
+ *
+ * Every findElement() is a round trip to the Appium server (and a UI tree query on the device).
+ * Tests that press the same keys over and over (digits, op_add, eq, result_final) pay that cost
+ * on every press. This cache maps a locator (or a list of candidate locators) to the element
+ * handle returned by the server and reuses it until the handle can no longer be trusted.
+ *
+ * Invalidation (no extra round trips; the current activity is never queried just for the cache):
+ * - Navigation: RecordingCommandExecutor calls screenChanged() for commands that move to another
+ *   screen (activateApp, startActivity, back, key presses, ...) and the whole cache is dropped
+ * - Screen reports: the activity and package returned by currentActivity / getCurrentPackage,
+ *   whenever a test asks for them, are remembered; a different value drops the whole cache
+ * - Stale handle: a click that opens another screen is invisible to the executor, but the old
+ *   screen's handles are no longer in the UI tree and the server reports them as stale. The
+ *   whole cache is then dropped, the element is re-resolved and the action is retried once
+ *
+ * A cache hit sends nothing to the server, so the locators behind it are reported to
+ * ImpactRecorder here; otherwise a test reusing another test's cached handles would
+ * record an empty footprint.
+ *
+ * Usage:
+ *   ElementCache elements = ElementCache.forSession(driver);
+ *   elements.click(AppiumBy.id("com.google.android.calculator:id/digit_2"));
+ *   String result = elements.text(resultGoogle, resultAosp);
+ */
+public class ElementCache {
+    private static final Logger logger = Logger.getLogger(ElementCache.class.getName());
+    private static final Map<SessionId, ElementCache> SESSIONS = new ConcurrentHashMap<>();
+
+    private final SearchContext context;
+    private final Map<List<By>, Cached> elements = new HashMap<>();
+    // Last screen signal reported per kind (TestFootprint.SCREEN / PACKAGE)
+    private final Map<String, String> screen = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    /**
+     * @param context driver (or parent element) used to resolve locators on a cache miss
+     */
+    public ElementCache(SearchContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Returns the cache for the driver's session. A new session always gets a fresh cache,
+     * so handles never leak across sessions.
+     */
+    public static ElementCache forSession(RemoteWebDriver driver) {
+        return SESSIONS.computeIfAbsent(driver.getSessionId(), id -> new ElementCache(driver));
+    }
+
+    /**
+     * Drops the cached handles of a session after a command that changes the screen.
+     */
+    public static void screenChanged(SessionId sessionId) {
+        ElementCache cache = sessionId == null ? null : SESSIONS.get(sessionId);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Passes a screen signal seen by the executor (current activity or package) to the session's cache.
+     */
+    public static void screenReported(SessionId sessionId, String kind, String value) {
+        ElementCache cache = sessionId == null ? null : SESSIONS.get(sessionId);
+        if (cache != null) {
+            cache.screenReported(kind, value);
+        }
+    }
+
+    /**
+     * Drops the cache registered for a session. Call when the session is quit.
+     */
+    public static void release(SessionId sessionId) {
+        if (sessionId != null) {
+            SESSIONS.remove(sessionId);
+        }
+    }
+
+    /**
+     * Returns the element for the first candidate locator that matches on the current screen.
+     * The resolved handle is remembered for the whole candidate list, so the candidates that
+     * did not match are not retried on later lookups.
+     *
+     * @throws NoSuchElementException if none of the candidates match
+     */
+    public synchronized WebElement find(By... candidates) {
+        List<By> key = Arrays.asList(candidates);
+        Cached cached = elements.get(key);
+        if (cached != null) {
+            hits++;
+            recordLocators(key, cached.matched());
+            return cached.element();
+        }
+        misses++;
+        Cached resolved = resolve(key);
+        elements.put(key, resolved);
+        return resolved.element();
+    }
+
+    /**
+     * Runs an action against the cached element. If the handle turns out to be stale the cache
+     * is cleared, the element is looked up again and the action is retried once.
+     *
+     * Lookups are retried under RetryPolicy.commandLevel(). The action is treated as one that
+     * changes state (a click): after a timeout it may already have happened on the device, so
+     * it is only retried when it never reached the server.
+     */
+    public <T> T apply(Function<WebElement, T> action, By... candidates) {
+        return apply(action, false, candidates);
+    }
+
+    public void click(By... candidates) {
+        apply(element -> {
+            element.click();
+            return null;
+        }, candidates);
+    }
+
+    public String text(By... candidates) {
+        return apply(WebElement::getText, true, candidates);
+    }
+
+    private <T> T apply(Function<WebElement, T> action, boolean idempotent, By... candidates) {
+        RetryPolicy policy = RetryPolicy.commandLevel();
+        Supplier<T> attempt = () -> {
+            WebElement element = policy.call(() -> find(candidates));
+            try {
+                return action.apply(element);
+            } catch (StaleElementReferenceException e) {
+                logger.fine("Stale element for " + Arrays.toString(candidates) + ", dropping cached elements");
+                clear();
+                return action.apply(policy.call(() -> find(candidates)));
+            }
+        };
+        return idempotent ? policy.call(attempt) : policy.callAction(attempt);
+    }
+
+    public synchronized void evict(By... candidates) {
+        elements.remove(Arrays.asList(candidates));
+    }
+
+    /**
+     * Drops the cached handles if the reported screen differs from the last report of the same kind.
+     */
+    public synchronized void screenReported(String kind, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String previous = screen.put(kind, value);
+        if (previous != null && !previous.equals(value)) {
+            logger.fine("Screen changed from " + previous + " to " + value + ", dropping cached elements");
+            elements.clear();
+        }
+    }
+
+    public synchronized void clear() {
+        elements.clear();
+        screen.clear();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    private Cached resolve(List<By> candidates) {
+        for (int i = 0; i < candidates.size(); i++) {
+            try {
+                return new Cached(i, context.findElement(candidates.get(i)));
+            } catch (NoSuchElementException ignored) {
+                // try the next candidate
+            }
+        }
+        throw new NoSuchElementException("Element not found using any of " + candidates);
+    }
+
+    /**
+     * Reports the candidates a lookup would have sent to the server: the ones that did not
+     * match and the one that did.
+     */
+    private static void recordLocators(List<By> candidates, int matched) {
+        for (int i = 0; i <= matched; i++) {
+            By by = candidates.get(i);
+            if (by instanceof By.Remotable) {
+                Object value = ((By.Remotable) by).getRemoteParameters().value();
+                ImpactRecorder.record(TestFootprint.LOCATOR, String.valueOf(value));
+            }
+        }
+    }
+
+    /**
+     * A resolved element and the index of the candidate locator that found it.
+     */
+    private record Cached(int matched, WebElement element) { }
+}
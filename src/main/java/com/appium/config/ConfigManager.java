@@ -35,4 +35,15 @@ public class ConfigManager {
     public static String get(String key, String def) {
         return properties.getProperty(key, def);
     }
+
+    /**
+     * Reads a setting that can be overridden per run: -D system property first, then the config file.
+     */
+    public static String setting(String key, String def) {
+        return System.getProperty(key, get(key, def)).trim();
+    }
+
+    public static int setting(String key, int def) {
+        return Integer.parseInt(setting(key, String.valueOf(def)));
+    }
 }
@@ -0,0 +1,50 @@
+package com.appium.events;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommandLatency - Per-thread latency totals of driver commands, summarised per test.
+ *
+ * RecordingCommandExecutor records every command; the test listener calls reset() when a test
+ * starts and summary() when it finishes, and attaches the result to the "test.finish" event:
+ *   "commands":{"findElement":{"count":5,"avgMs":180,"maxMs":410}, ...}
+ */
+public class CommandLatency {
+    private static final ThreadLocal<Map<String, long[]>> STATS = ThreadLocal.withInitial(HashMap::new);
+
+    private CommandLatency() { }
+
+    public static void record(String command, long elapsedNanos) {
+        // [count, total, max]
+        long[] stats = STATS.get().computeIfAbsent(command, name -> new long[3]);
+        stats[0]++;
+        stats[1] += elapsedNanos;
+        stats[2] = Math.max(stats[2], elapsedNanos);
+    }
+
+    public static void reset() {
+        STATS.get().clear();
+    }
+
+    /**
+     * Returns the summary of the commands recorded on this thread since the last reset,
+     * and resets the counters.
+     */
+    public static Map<String, Map<String, Long>> summary() {
+        Map<String, Map<String, Long>> summary = new TreeMap<>();
+        for (Map.Entry<String, long[]> entry : STATS.get().entrySet()) {
+            long[] stats = entry.getValue();
+            Map<String, Long> command = new LinkedHashMap<>();
+            command.put("count", stats[0]);
+            command.put("avgMs", TimeUnit.NANOSECONDS.toMillis(stats[1] / stats[0]));
+            command.put("maxMs", TimeUnit.NANOSECONDS.toMillis(stats[2]));
+            summary.put(entry.getKey(), command);
+        }
+        reset();
+        return summary;
+    }
+}
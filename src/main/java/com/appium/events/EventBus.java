@@ -0,0 +1,214 @@
+package com.appium.events;
+
+import com.appium.config.ConfigManager;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * EventBus - Live feed of run events (tests, commands, devices) as newline-delimited JSON.
+ *
+ * Producers (test threads) only allocate a RunEvent and offer it to a lock-free
+ * ConcurrentLinkedQueue; they never block and never touch I/O. A single daemon writer thread
+ * drains the queue, serialises events and writes them to every sink, flushing whenever the
+ * queue runs dry. When the queue is full (events.capacity) new events are dropped and counted
+ * rather than slowing the tests down.
+ *
+ * The writer also emits a "bus.heartbeat" event (queue depth, dropped count) every
+ * events.heartbeatMs, so a silent feed means a stuck run rather than a dead bus.
+ *
+ * Configuration (config file or -D):
+ * - events.enabled=true
+ * - events.file=target/run-events.ndjson, events.file.maxBytes=10485760, events.file.keep=3
+ * - events.port=7070            TCP feed on 127.0.0.1 (off unless set)
+ * - events.socket=/tmp/run.sock Unix socket feed (off unless set)
+ * - events.capacity=65536, events.heartbeatMs=5000
+ */
+public class EventBus {
+    private static final Logger logger = Logger.getLogger(EventBus.class.getName());
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final ConcurrentLinkedQueue<RunEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final List<EventSink> sinks;
+    private final int capacity;
+    private final long heartbeatMillis;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public EventBus(List<EventSink> sinks, int capacity, Duration heartbeat) {
+        this.sinks = new ArrayList<>(sinks);
+        this.capacity = capacity;
+        this.heartbeatMillis = heartbeat.toMillis();
+        if (this.sinks.isEmpty()) {
+            writer = null;
+            running = false;
+        } else {
+            writer = new Thread(this::drain, "event-bus-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * Bus configured from the active environment, created on first use and closed at JVM exit.
+     */
+    public static EventBus shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static final class Shared {
+        static final EventBus INSTANCE = fromConfig();
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::close, "event-bus-shutdown"));
+        }
+    }
+
+    private static EventBus fromConfig() {
+        List<EventSink> sinks = new ArrayList<>();
+        if (Boolean.parseBoolean(ConfigManager.setting("events.enabled", "true"))) {
+            try {
+                String file = ConfigManager.setting("events.file", "target/run-events.ndjson");
+                if (!file.isBlank()) {
+                    sinks.add(new RollingFileSink(Paths.get(file),
+                            Long.parseLong(ConfigManager.setting("events.file.maxBytes", "10485760")),
+                            ConfigManager.setting("events.file.keep", 3)));
+                }
+                String port = ConfigManager.setting("events.port", "");
+                if (!port.isBlank()) {
+                    sinks.add(SocketSink.tcp(Integer.parseInt(port)));
+                    logger.info("Streaming run events on tcp://127.0.0.1:" + port);
+                }
+                String socket = ConfigManager.setting("events.socket", "");
+                if (!socket.isBlank()) {
+                    sinks.add(SocketSink.unix(Paths.get(socket)));
+                    logger.info("Streaming run events on unix socket " + socket);
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to open event sink, continuing with " + sinks.size() + " sinks", e);
+            }
+        }
+        return new EventBus(sinks,
+                ConfigManager.setting("events.capacity", 65536),
+                Duration.ofMillis(ConfigManager.setting("events.heartbeatMs", 5000)));
+    }
+
+    /**
+     * Queues an event; never blocks. Field maps are serialised later, so pass maps that are not
+     * modified afterwards (Map.of or a fresh LinkedHashMap).
+     */
+    public void publish(String type, Map<String, ?> fields) {
+        if (!running) {
+            return;
+        }
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        queue.offer(new RunEvent(type, System.currentTimeMillis(), Thread.currentThread().getName(), fields));
+    }
+
+    public void publish(String type) {
+        publish(type, Collections.emptyMap());
+    }
+
+    public int queueDepth() {
+        return depth.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stops accepting events, writes everything already queued and closes the sinks.
+     */
+    public void close() {
+        if (writer == null || !running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        long nextHeartbeat = System.currentTimeMillis() + heartbeatMillis;
+        while (running || !queue.isEmpty()) {
+            RunEvent event = queue.poll();
+            if (event != null) {
+                depth.decrementAndGet();
+                write(event);
+            } else {
+                flush();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            if (heartbeatMillis > 0 && System.currentTimeMillis() >= nextHeartbeat) {
+                Map<String, Object> fields = new LinkedHashMap<>();
+                fields.put("queueDepth", depth.get());
+                fields.put("dropped", dropped.get());
+                write(new RunEvent("bus.heartbeat", System.currentTimeMillis(), Thread.currentThread().getName(), fields));
+                nextHeartbeat = System.currentTimeMillis() + heartbeatMillis;
+            }
+        }
+        flush();
+        for (EventSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Failed to close event sink", e);
+            }
+        }
+    }
+
+    private void write(RunEvent event) {
+        String line = event.toJson();
+        for (int i = sinks.size() - 1; i >= 0; i--) {
+            try {
+                sinks.get(i).write(line);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Event sink failed, removing it", e);
+                closeQuietly(sinks.remove(i));
+            }
+        }
+    }
+
+    private void flush() {
+        for (int i = sinks.size() - 1; i >= 0; i--) {
+            try {
+                sinks.get(i).flush();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Event sink failed, removing it", e);
+                closeQuietly(sinks.remove(i));
+            }
+        }
+    }
+
+    private static void closeQuietly(EventSink sink) {
+        try {
+            sink.close();
+        } catch (IOException ignored) {
+            // already failing
+        }
+    }
+}
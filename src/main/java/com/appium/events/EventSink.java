@@ -0,0 +1,22 @@
+package com.appium.events;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * EventSink - Destination for the newline-delimited JSON feed.
+ *
+ * Only ever called from the EventBus writer thread, so implementations need no locking.
+ */
+public interface EventSink extends Closeable {
+
+    /**
+     * Writes one JSON line (without the trailing newline).
+     */
+    void write(String line) throws IOException;
+
+    /**
+     * Called when the queue is drained, so sinks can batch writes between flushes.
+     */
+    default void flush() throws IOException { }
+}
@@ -0,0 +1,82 @@
+package com.appium.events;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * RollingFileSink - Appends events to a file and rotates it once it reaches maxBytes.
+ *
+ * Rotation keeps {@code keep} old files: run-events.ndjson.1 is the newest, .N the oldest.
+ * Sizes are counted in encoded UTF-8 bytes, so non-ASCII messages cannot push a file past maxBytes.
+ * Tail it with: tail -F target/run-events.ndjson
+ */
+public class RollingFileSink implements EventSink {
+    private final Path file;
+    private final long maxBytes;
+    private final int keep;
+    private OutputStream out;
+    private long bytes;
+
+    public RollingFileSink(Path file, long maxBytes, int keep) throws IOException {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.keep = keep;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        open();
+    }
+
+    @Override
+    public void write(String line) throws IOException {
+        byte[] encoded = line.getBytes(StandardCharsets.UTF_8);
+        if (bytes > 0 && bytes + encoded.length + 1 > maxBytes) {
+            rotate();
+        }
+        out.write(encoded);
+        out.write('\n');
+        bytes += encoded.length + 1;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void open() throws IOException {
+        out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        bytes = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        for (int i = keep - 1; i >= 1; i--) {
+            Path older = rotated(i);
+            if (Files.exists(older)) {
+                Files.move(older, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (keep > 0) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        open();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,79 @@
+package com.appium.events;
+
+import java.util.Map;
+
+/**
+ * RunEvent - One line of the live run feed.
+ *
+ * Created on the publishing (test) thread with the raw field values; serialisation to JSON
+ * happens later on the EventBus writer thread so test threads only pay for the allocation.
+ *
+ * @param type      event type, e.g. "test.start", "device.lease"
+ * @param timestamp epoch milliseconds when the event was published
+ * @param thread    name of the publishing thread (identifies the shard/worker)
+ * @param fields    event payload: strings, numbers, booleans or nested maps of those
+ */
+public record RunEvent(String type, long timestamp, String thread, Map<String, ?> fields) {
+
+    /**
+     * Renders the event as a single line of JSON (no trailing newline).
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"ts\":").append(timestamp)
+                .append(",\"type\":");
+        appendString(json, type);
+        json.append(",\"thread\":");
+        appendString(json, thread);
+        for (Map.Entry<String, ?> field : fields.entrySet()) {
+            json.append(',');
+            appendString(json, field.getKey());
+            json.append(':');
+            appendValue(json, field.getValue());
+        }
+        return json.append('}').toString();
+    }
+
+    private static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            json.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) json.append(',');
+                first = false;
+                appendString(json, String.valueOf(entry.getKey()));
+                json.append(':');
+                appendValue(json, entry.getValue());
+            }
+            json.append('}');
+        } else {
+            appendString(json, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,113 @@
+package com.appium.events;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * SocketSink - Streams events to every client connected to a local TCP port or Unix socket.
+ *
+ * Clients only listen; anything they send is ignored. Channels are non-blocking: a client that
+ * cannot keep up (its socket buffer is full) is disconnected instead of stalling the feed.
+ *
+ * Examples:
+ *   nc 127.0.0.1 7070 | jq .
+ *   nc -U target/run-events.sock
+ */
+public class SocketSink implements EventSink {
+    private static final Logger logger = Logger.getLogger(SocketSink.class.getName());
+
+    private final ServerSocketChannel server;
+    private final Path socketFile;
+    private final List<SocketChannel> clients = new ArrayList<>();
+
+    private SocketSink(ServerSocketChannel server, Path socketFile) throws IOException {
+        this.server = server;
+        this.socketFile = socketFile;
+        server.configureBlocking(false);
+    }
+
+    /**
+     * Listens on 127.0.0.1 only; use port 0 to pick a free port (see {@link #port()}).
+     */
+    public static SocketSink tcp(int port) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress("127.0.0.1", port));
+        return new SocketSink(server, null);
+    }
+
+    public static SocketSink unix(Path socketFile) throws IOException {
+        Files.deleteIfExists(socketFile);
+        if (socketFile.getParent() != null) {
+            Files.createDirectories(socketFile.getParent());
+        }
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketFile));
+        return new SocketSink(server, socketFile);
+    }
+
+    public int port() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    @Override
+    public void write(String line) throws IOException {
+        acceptClients();
+        if (clients.isEmpty()) {
+            return;
+        }
+        ByteBuffer payload = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        for (Iterator<SocketChannel> it = clients.iterator(); it.hasNext(); ) {
+            SocketChannel client = it.next();
+            try {
+                ByteBuffer buffer = payload.duplicate();
+                client.write(buffer);
+                // A partial write means the client's socket buffer is full
+                if (buffer.hasRemaining()) {
+                    logger.warning("Disconnecting slow event client " + client.getRemoteAddress());
+                    client.close();
+                    it.remove();
+                }
+            } catch (IOException e) {
+                client.close();
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        acceptClients();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (SocketChannel client : clients) {
+            client.close();
+        }
+        clients.clear();
+        server.close();
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+        }
+    }
+
+    private void acceptClients() throws IOException {
+        SocketChannel client;
+        while ((client = server.accept()) != null) {
+            client.configureBlocking(false);
+            clients.add(client);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.appium.impact;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * FootprintStore - Reads and writes recorded footprints as a tab-separated file.
+ *
+ * One line per touched item: {@code <class>#<method> TAB <kind> TAB <value>}, sorted so the
+ * file diffs cleanly between runs. Tabs are used because locators (XPath, UiSelector) may
+ * contain commas, spaces and quotes.
+ */
+public class FootprintStore {
+
+    private FootprintStore() { }
+
+    public static Map<String, TestFootprint> load(Path file) throws IOException {
+        Map<String, TestFootprint> footprints = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return footprints;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] parts = line.split("\t", 3);
+                if (parts.length != 3) {
+                    throw new IOException("Malformed footprint line in " + file + ": " + line);
+                }
+                footprints.computeIfAbsent(parts[0], test -> new TestFootprint()).add(parts[1], parts[2]);
+            }
+        }
+        return footprints;
+    }
+
+    public static void save(Path file, Map<String, TestFootprint> footprints) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# test\tkind\tvalue");
+            writer.newLine();
+            for (Map.Entry<String, TestFootprint> entry : new TreeMap<>(footprints).entrySet()) {
+                write(writer, entry.getKey(), TestFootprint.SCREEN, entry.getValue().screens());
+                write(writer, entry.getKey(), TestFootprint.PACKAGE, entry.getValue().packages());
+                write(writer, entry.getKey(), TestFootprint.LOCATOR, entry.getValue().locators());
+            }
+        }
+    }
+
+    private static void write(BufferedWriter writer, String test, String kind, Iterable<String> values) throws IOException {
+        for (String value : values) {
+            writer.write(test + "\t" + kind + "\t" + value.replace('\t', ' ').replace('\n', ' '));
+            writer.newLine();
+        }
+    }
+}
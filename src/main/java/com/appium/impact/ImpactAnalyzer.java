@@ -0,0 +1,176 @@
+package com.appium.impact;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * ImpactAnalyzer - Turns a list of changed screens/packages/locator ids into a minimal TestNG suite.
+ *
+ * Only JDK classes are used so it can run straight from target/classes before the test phase:
+ *   java -cp target/classes com.appium.impact.ImpactAnalyzer \
+ *       --changed digit_2,op_add --out .test-impact/impact-testng.xml
+ *
+ * Options:
+ * - --changed a,b,c        changed identifiers (locator ids, activity names, package names)
+ * - --changed-file FILE    same, one identifier per line (e.g. extracted from a git diff)
+ * - --footprints FILE      recorded footprints (default: -Dimpact.file or .test-impact/footprints.tsv)
+ * - --out FILE             generated suite (default: .test-impact/impact-testng.xml, survives mvn clean)
+ *
+ * Tests without a recorded footprint are unknown to the analyzer, so run the full suite once
+ * (or after adding tests) to record them.
+ *
+ * A change that no recorded footprint touches may belong to a test that was never recorded,
+ * so no suite is written and the process exits with status 2; callers then run the full suite.
+ */
+public class ImpactAnalyzer {
+    private static final Logger logger = Logger.getLogger(ImpactAnalyzer.class.getName());
+    // Exit status when a change is not covered by any footprint and the full suite must run
+    public static final int EXIT_UNMATCHED = 2;
+    private static final String[] LISTENERS = {"base.ImpactListener", "base.RetryListener", "base.RunEventListener"};
+
+    private final Map<String, TestFootprint> footprints;
+
+    public ImpactAnalyzer(Map<String, TestFootprint> footprints) {
+        this.footprints = footprints;
+    }
+
+    /**
+     * Returns the ids ({@code <class>#<method>}) of the tests that touched any changed identifier.
+     */
+    public SortedSet<String> select(Collection<String> changes) {
+        SortedSet<String> selected = new TreeSet<>();
+        for (Map.Entry<String, TestFootprint> entry : footprints.entrySet()) {
+            for (String change : changes) {
+                if (entry.getValue().touches(change)) {
+                    selected.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns the changes that no recorded footprint touches.
+     */
+    public SortedSet<String> unmatched(Collection<String> changes) {
+        SortedSet<String> unmatched = new TreeSet<>();
+        for (String change : changes) {
+            boolean matched = false;
+            for (TestFootprint footprint : footprints.values()) {
+                if (footprint.touches(change)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                unmatched.add(change);
+            }
+        }
+        return unmatched;
+    }
+
+    /**
+     * Renders the selected tests as a TestNG suite that includes only those methods.
+     * The suite listeners are kept so the run refreshes footprints and flake history and feeds the event bus.
+     */
+    public static String toSuiteXml(Set<String> testIds) {
+        SortedMap<String, SortedSet<String>> methodsByClass = new TreeMap<>();
+        for (String testId : testIds) {
+            int separator = testId.indexOf('#');
+            methodsByClass.computeIfAbsent(testId.substring(0, separator), c -> new TreeSet<>())
+                    .add(testId.substring(separator + 1));
+        }
+
+        StringBuilder xml = new StringBuilder();
+        xml.append("<!DOCTYPE suite SYSTEM \"https://testng.org/testng-1.0.dtd\">\n");
+        xml.append("<suite name=\"Impacted Tests\" verbose=\"1\">\n");
+        xml.append("  <listeners>\n");
+        for (String listener : LISTENERS) {
+            xml.append("    <listener class-name=\"").append(listener).append("\"/>\n");
+        }
+        xml.append("  </listeners>\n");
+        if (!methodsByClass.isEmpty()) {
+            xml.append("  <test name=\"Impacted Tests\">\n");
+            xml.append("    <classes>\n");
+            for (Map.Entry<String, SortedSet<String>> entry : methodsByClass.entrySet()) {
+                xml.append("      <class name=\"").append(entry.getKey()).append("\">\n");
+                xml.append("        <methods>\n");
+                for (String method : entry.getValue()) {
+                    xml.append("          <include name=\"").append(method).append("\"/>\n");
+                }
+                xml.append("        </methods>\n");
+                xml.append("      </class>\n");
+            }
+            xml.append("    </classes>\n");
+            xml.append("  </test>\n");
+        }
+        xml.append("</suite>\n");
+        return xml.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Set<String> changes = new LinkedHashSet<>();
+        Path footprintFile = ImpactRecorder.footprintFile();
+        Path out = Paths.get(".test-impact/impact-testng.xml");
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--changed" -> addAll(changes, value.split(","));
+                case "--changed-file" -> addAll(changes,
+                        Files.readAllLines(Paths.get(value), StandardCharsets.UTF_8).toArray(new String[0]));
+                case "--footprints" -> footprintFile = Paths.get(value);
+                case "--out" -> out = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("No changes given, use --changed or --changed-file");
+        }
+        Map<String, TestFootprint> footprints = FootprintStore.load(footprintFile);
+        if (footprints.isEmpty()) {
+            throw new IllegalStateException("No footprints recorded in " + footprintFile
+                    + ", run the full suite first");
+        }
+        ImpactAnalyzer analyzer = new ImpactAnalyzer(footprints);
+        SortedSet<String> unmatched = analyzer.unmatched(changes);
+        if (!unmatched.isEmpty()) {
+            // Never leave an older selection behind for the caller to pick up
+            Files.deleteIfExists(out);
+            logger.warning("No recorded test touches " + unmatched + ", run the full suite");
+            System.exit(EXIT_UNMATCHED);
+        }
+        SortedSet<String> selected = analyzer.select(changes);
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        Files.writeString(out, toSuiteXml(selected), StandardCharsets.UTF_8);
+        logger.info("Selected " + selected.size() + " of " + footprints.size() + " tests for changes "
+                + changes + ": " + selected);
+        logger.info("Suite written to " + out);
+    }
+
+    private static void addAll(Set<String> changes, String[] values) {
+        for (String value : values) {
+            if (!value.isBlank()) changes.add(value.trim());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.appium.impact;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * ImpactRecorder - Collects the footprint of the test method running on the current thread.
+ *
+ * A test listener calls begin()/end() around each test method; RecordingCommandExecutor reports
+ * every screen, package and locator it sees in between. Commands issued outside a test method
+ * (suite setup, teardown) are not attributed to any test.
+ *
+ * Footprints are merged into the existing file on save, so a partial (impact-selected) run
+ * refreshes the tests it ran and keeps the rest. Empty footprints (a test that failed or was
+ * skipped before sending any command) never replace a recorded one. The merge holds a lock on
+ * {@code <file>.lock}, so parallel device runs sharing the file do not drop each other's tests.
+ */
+public class ImpactRecorder {
+    private static final Logger logger = Logger.getLogger(ImpactRecorder.class.getName());
+    private static final ThreadLocal<TestFootprint> CURRENT = new ThreadLocal<>();
+    private static final Map<String, TestFootprint> RECORDED = new ConcurrentHashMap<>();
+
+    private ImpactRecorder() { }
+
+    /**
+     * Footprint file location, overridable with -Dimpact.file.
+     */
+    public static Path footprintFile() {
+        return Paths.get(System.getProperty("impact.file", ".test-impact/footprints.tsv"));
+    }
+
+    public static void begin(String testId) {
+        TestFootprint footprint = new TestFootprint();
+        RECORDED.put(testId, footprint);
+        CURRENT.set(footprint);
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static void record(String kind, String value) {
+        TestFootprint footprint = CURRENT.get();
+        if (footprint != null) {
+            footprint.add(kind, value);
+        }
+    }
+
+    public static synchronized void save(Path file) throws IOException {
+        Map<String, TestFootprint> recorded = new HashMap<>();
+        RECORDED.forEach((testId, footprint) -> {
+            if (!footprint.isEmpty()) {
+                recorded.put(testId, footprint);
+            }
+        });
+        if (recorded.isEmpty()) {
+            return;
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            Map<String, TestFootprint> merged = FootprintStore.load(file);
+            merged.putAll(recorded);
+            FootprintStore.save(file, merged);
+        }
+        logger.info("Saved footprints of " + recorded.size() + " tests to " + file);
+    }
+}
@@ -0,0 +1,140 @@
+package com.appium.impact;
+
+import com.appium.cache.ElementCache;
+import com.appium.events.CommandLatency;
+import io.appium.java_client.MobileCommand;
+import io.appium.java_client.remote.AppiumCommandExecutor;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RecordingCommandExecutor - AppiumCommandExecutor that reports what each command touched.
+ *
+ * Inspects command names and parameters (and, for screen queries, the response value) and
+ * forwards them to ImpactRecorder. Nothing extra is sent to the server, so recording costs no
+ * round trips. Screens come from startActivity, from currentActivity when a test asks for it,
+ * and from activateApp: activating the session's appPackage records its appActivity, the
+ * screen the app opens on.
+ * Commands that move to another screen also drop the session's ElementCache, and reported
+ * activities/packages are passed on to it as screen signals.
+ * The round-trip time of every command is also added to CommandLatency for the live run feed.
+ *
+ * Usage:
+ *   driver = new AndroidDriver(new RecordingCommandExecutor(new URL(serverUrl)), capabilities);
+ */
+public class RecordingCommandExecutor extends AppiumCommandExecutor {
+    // Commands after which cached element handles belong to a screen that is no longer shown
+    private static final Set<String> SCREEN_CHANGES = Set.of(
+            DriverCommand.GET, DriverCommand.GO_BACK, DriverCommand.GO_FORWARD, DriverCommand.REFRESH,
+            "activateApp", "terminateApp", "startActivity", "pressKeyCode", "longPressKeyCode");
+    // java-client sends these as "mobile:" extension scripts first; mapped to the legacy command names
+    private static final Map<String, String> MOBILE_COMMANDS = Map.of(
+            "mobile: activateApp", "activateApp",
+            "mobile: terminateApp", "terminateApp",
+            "mobile: startActivity", "startActivity",
+            "mobile: pressKey", "pressKeyCode",
+            "mobile: getCurrentActivity", "currentActivity",
+            "mobile: getCurrentPackage", "getCurrentPackage");
+
+    // appPackage/appActivity each session was started with
+    private final Map<SessionId, LaunchActivity> launchActivities = new ConcurrentHashMap<>();
+
+    public RecordingCommandExecutor(URL addressOfRemoteServer) {
+        super(MobileCommand.commandRepository, addressOfRemoteServer);
+    }
+
+    @Override
+    public Response execute(Command command) throws WebDriverException {
+        String name = command.getName();
+        Map<String, ?> parameters = command.getParameters();
+        if (DriverCommand.EXECUTE_SCRIPT.equals(name) && MOBILE_COMMANDS.containsKey(parameters.get("script"))) {
+            name = MOBILE_COMMANDS.get(parameters.get("script"));
+            parameters = scriptArgument(parameters.get("args"));
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = super.execute(command);
+        } finally {
+            CommandLatency.record(name, System.nanoTime() - start);
+        }
+        if (SCREEN_CHANGES.contains(name)) {
+            ElementCache.screenChanged(command.getSessionId());
+        }
+        switch (name) {
+            case DriverCommand.NEW_SESSION -> rememberLaunchActivity(response, parameters);
+            case DriverCommand.QUIT -> launchActivities.remove(command.getSessionId());
+            case DriverCommand.FIND_ELEMENT, DriverCommand.FIND_ELEMENTS,
+                    DriverCommand.FIND_CHILD_ELEMENT, DriverCommand.FIND_CHILD_ELEMENTS ->
+                    ImpactRecorder.record(TestFootprint.LOCATOR, asString(parameters.get("value")));
+            // Appium command names, see MobileCommand
+            case "activateApp" -> {
+                String appId = asString(parameters.get("appId"));
+                ImpactRecorder.record(TestFootprint.PACKAGE, appId);
+                LaunchActivity launch = command.getSessionId() == null ? null : launchActivities.get(command.getSessionId());
+                if (launch != null && launch.appPackage().equals(appId)) {
+                    ImpactRecorder.record(TestFootprint.SCREEN, launch.appActivity());
+                }
+            }
+            case "startActivity" -> {
+                ImpactRecorder.record(TestFootprint.PACKAGE, asString(parameters.get("appPackage")));
+                ImpactRecorder.record(TestFootprint.SCREEN, asString(parameters.get("appActivity")));
+            }
+            case "getCurrentPackage" -> {
+                ImpactRecorder.record(TestFootprint.PACKAGE, asString(response.getValue()));
+                ElementCache.screenReported(command.getSessionId(), TestFootprint.PACKAGE, asString(response.getValue()));
+            }
+            case "currentActivity" -> {
+                ImpactRecorder.record(TestFootprint.SCREEN, asString(response.getValue()));
+                ElementCache.screenReported(command.getSessionId(), TestFootprint.SCREEN, asString(response.getValue()));
+            }
+            default -> { }
+        }
+        return response;
+    }
+
+    private void rememberLaunchActivity(Response response, Map<String, ?> parameters) {
+        if (response.getSessionId() == null || !(parameters.get("desiredCapabilities") instanceof Capabilities caps)) {
+            return;
+        }
+        String appPackage = capability(caps, "appPackage");
+        String appActivity = capability(caps, "appActivity");
+        if (appPackage != null && appActivity != null) {
+            launchActivities.put(new SessionId(response.getSessionId()), new LaunchActivity(appPackage, appActivity));
+        }
+    }
+
+    private static String capability(Capabilities caps, String name) {
+        Object value = caps.getCapability("appium:" + name);
+        return asString(value != null ? value : caps.getCapability(name));
+    }
+
+    /**
+     * The options map of a "mobile:" script call (its first and only argument).
+     */
+    private static Map<String, ?> scriptArgument(Object args) {
+        if (args instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof Map<?, ?> options) {
+            @SuppressWarnings("unchecked")
+            Map<String, ?> typed = (Map<String, ?>) options;
+            return typed;
+        }
+        return Map.of();
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : String.valueOf(value);
+    }
+
+    private record LaunchActivity(String appPackage, String appActivity) { }
+}
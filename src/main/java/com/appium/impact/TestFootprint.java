@@ -0,0 +1,71 @@
+package com.appium.impact;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestFootprint - What one test method touched on the device.
+ *
+ * - screens:   activities started, reported by currentActivity, or opened by activating the app
+ * - packages:  apps activated or reported by getCurrentPackage
+ * - locators:  locator values used by findElement/findElements (e.g. "com.google.android.calculator:id/eq")
+ */
+public class TestFootprint {
+    public static final String SCREEN = "screen";
+    public static final String PACKAGE = "package";
+    public static final String LOCATOR = "locator";
+
+    private final Set<String> screens = ConcurrentHashMap.newKeySet();
+    private final Set<String> packages = ConcurrentHashMap.newKeySet();
+    private final Set<String> locators = ConcurrentHashMap.newKeySet();
+
+    public void add(String kind, String value) {
+        if (value == null || value.isBlank()) return;
+        switch (kind) {
+            case SCREEN -> screens.add(value);
+            case PACKAGE -> packages.add(value);
+            case LOCATOR -> locators.add(value);
+            default -> throw new IllegalArgumentException("Unknown footprint kind: " + kind);
+        }
+    }
+
+    public boolean isEmpty() {
+        return screens.isEmpty() && packages.isEmpty() && locators.isEmpty();
+    }
+
+    public Set<String> screens() {
+        return Collections.unmodifiableSet(new TreeSet<>(screens));
+    }
+
+    public Set<String> packages() {
+        return Collections.unmodifiableSet(new TreeSet<>(packages));
+    }
+
+    public Set<String> locators() {
+        return Collections.unmodifiableSet(new TreeSet<>(locators));
+    }
+
+    /**
+     * True if any recorded screen, package or locator is affected by the changed identifier.
+     * A change matches a recorded value when it is equal to it or is its last segment, so
+     * "digit_2" matches "com.google.android.calculator:id/digit_2" and "Calculator" matches
+     * "com.android.calculator2.Calculator".
+     */
+    public boolean touches(String change) {
+        return matchesAny(screens, change) || matchesAny(packages, change) || matchesAny(locators, change);
+    }
+
+    private static boolean matchesAny(Set<String> values, String change) {
+        for (String value : values) {
+            if (value.equals(change)
+                    || value.endsWith("/" + change)
+                    || value.endsWith("." + change)
+                    || (value.startsWith(".") && change.endsWith(value))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package com.appium.providers;
+
+import com.appium.config.ConfigManager;
+import io.appium.java_client.android.options.UiAutomator2Options;
+
+import java.time.Duration;
+
+/**
+ * AndroidCapabilities - Capabilities shared by every provider, read from the active config.
+ *
+ * Returns a fresh UiAutomator2Options for each call; providers add their vendor options to it
+ * and hand out an immutable copy, so no options object is ever shared between sessions.
+ */
+public class AndroidCapabilities {
+
+    private AndroidCapabilities() { }
+
+    public static UiAutomator2Options base(DeviceSpec device) {
+        String automationName = ConfigManager.get("automationName", "UiAutomator2");
+        boolean noReset = Boolean.parseBoolean(ConfigManager.get("noReset", "true"));
+        String appPackage = ConfigManager.get("appPackage", "");
+        String appActivity = ConfigManager.get("appActivity", "");
+
+        UiAutomator2Options options = new UiAutomator2Options()
+                .setPlatformName("Android")
+                .setDeviceName(device.deviceName())
+                .setAutomationName(automationName)
+                .setNoReset(noReset)
+                .setNewCommandTimeout(Duration.ofSeconds(120));
+        if (!device.platformVersion().isEmpty()) options.setPlatformVersion(device.platformVersion());
+        if (!device.udid().isEmpty()) options.setUdid(device.udid());
+        if (!appPackage.isEmpty()) options.setAppPackage(appPackage);
+        if (!appActivity.isEmpty()) options.setAppActivity(appActivity);
+        return options;
+    }
+}
@@ -0,0 +1,43 @@
+package com.appium.providers;
+
+import com.appium.config.ConfigManager;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * BrowserStackProvider - BrowserStack App Automate.
+ *
+ * Credentials: -Dbrowserstack.user / -Dbrowserstack.key or BROWSERSTACK_USER / BROWSERSTACK_KEY.
+ * Build, session and project names go into the W3C "bstack:options" capability.
+ */
+public class BrowserStackProvider implements CloudProvider {
+    private static final Logger logger = Logger.getLogger(BrowserStackProvider.class.getName());
+
+    @Override
+    public String id() {
+        return "browserstack";
+    }
+
+    @Override
+    public Capabilities capabilities(SessionRequest request) {
+        UiAutomator2Options options = AndroidCapabilities.base(request.device());
+        Optional<Credentials> credentials = Credentials.resolve(id(),
+                "browserstack.user", "browserstack.key", "BROWSERSTACK_USER", "BROWSERSTACK_KEY");
+        if (credentials.isPresent()) {
+            options.setCapability("bstack:options", Map.of(
+                    "userName", credentials.get().user(),
+                    "accessKey", credentials.get().key(),
+                    "projectName", ConfigManager.get("project", "Appium Calculator Tests"),
+                    "buildName", request.buildName(),
+                    "sessionName", request.sessionName()));
+        } else {
+            logger.warning("BrowserStack credentials not found, session will be rejected by the hub");
+        }
+        return ImmutableCapabilities.copyOf(options);
+    }
+}
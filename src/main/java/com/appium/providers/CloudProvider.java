@@ -0,0 +1,28 @@
+package com.appium.providers;
+
+import org.openqa.selenium.Capabilities;
+
+/**
+ * CloudProvider - Service provider interface for building session capabilities.
+ *
+ * One implementation per execution target (BrowserStack, Sauce Labs, self-hosted Appium).
+ * Implementations are discovered with {@link java.util.ServiceLoader} from
+ * META-INF/services/com.appium.providers.CloudProvider, so a new provider can be added by
+ * dropping a jar on the test classpath without touching BaseTest.
+ *
+ * Contract:
+ * - capabilities() is called once per session and may be called from many threads at once
+ * - it must return a new, immutable Capabilities object and must not keep per-session state
+ */
+public interface CloudProvider {
+
+    /**
+     * Identifier used to select the provider, e.g. "browserstack" (matches the "provider" config key).
+     */
+    String id();
+
+    /**
+     * Builds the capabilities for one session.
+     */
+    Capabilities capabilities(SessionRequest request);
+}
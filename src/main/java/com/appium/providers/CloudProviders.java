@@ -0,0 +1,45 @@
+package com.appium.providers;
+
+import com.appium.config.ConfigManager;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * CloudProviders - Registry of the CloudProvider implementations found on the classpath.
+ *
+ * Providers are loaded once and never modified afterwards, so lookups are safe from any thread.
+ * Selection order: -Dprovider system property, then the "provider" key of the active
+ * environment config, then "remote" (plain self-hosted Appium server).
+ */
+public class CloudProviders {
+    private static final Logger logger = Logger.getLogger(CloudProviders.class.getName());
+    private static final String DEFAULT_PROVIDER = "remote";
+    private static final Map<String, CloudProvider> PROVIDERS = load();
+
+    private CloudProviders() { }
+
+    public static CloudProvider get(String id) {
+        CloudProvider provider = PROVIDERS.get(id.toLowerCase());
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown provider '" + id + "', available: " + PROVIDERS.keySet());
+        }
+        return provider;
+    }
+
+    public static CloudProvider fromConfig() {
+        return get(ConfigManager.setting("provider", DEFAULT_PROVIDER));
+    }
+
+    private static Map<String, CloudProvider> load() {
+        Map<String, CloudProvider> providers = new TreeMap<>();
+        for (CloudProvider provider : ServiceLoader.load(CloudProvider.class)) {
+            providers.put(provider.id().toLowerCase(), provider);
+        }
+        logger.info("Registered capability providers: " + providers.keySet());
+        return Collections.unmodifiableMap(providers);
+    }
+}
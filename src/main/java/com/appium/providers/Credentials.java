@@ -0,0 +1,48 @@
+package com.appium.providers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Credentials - Provider account (user name + access key).
+ *
+ * Resolution order for a provider:
+ * 1. Credentials registered for the current thread with {@link #setForCurrentThread}
+ *    (lets parallel workers use different accounts or sub-accounts)
+ * 2. System properties (e.g. -Dbrowserstack.user / -Dbrowserstack.key)
+ * 3. Environment variables (e.g. BROWSERSTACK_USER / BROWSERSTACK_KEY set by Jenkins)
+ *
+ * @param user user name
+ * @param key  access key (never printed by toString)
+ */
+public record Credentials(String user, String key) {
+    private static final ThreadLocal<Map<String, Credentials>> THREAD_CREDENTIALS = ThreadLocal.withInitial(HashMap::new);
+
+    public static void setForCurrentThread(String providerId, Credentials credentials) {
+        THREAD_CREDENTIALS.get().put(providerId, credentials);
+    }
+
+    public static void clearForCurrentThread() {
+        THREAD_CREDENTIALS.remove();
+    }
+
+    public static Optional<Credentials> resolve(String providerId, String userProperty, String keyProperty,
+                                                String userEnv, String keyEnv) {
+        Credentials threadCredentials = THREAD_CREDENTIALS.get().get(providerId);
+        if (threadCredentials != null) {
+            return Optional.of(threadCredentials);
+        }
+        String user = System.getProperty(userProperty, System.getenv(userEnv));
+        String key = System.getProperty(keyProperty, System.getenv(keyEnv));
+        if (user == null || user.isBlank() || key == null || key.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Credentials(user, key));
+    }
+
+    @Override
+    public String toString() {
+        return "Credentials[user=" + user + ", key=****]";
+    }
+}
@@ -0,0 +1,97 @@
+package com.appium.providers;
+
+import com.appium.config.ConfigManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * DeviceMatrix - Expands the "devices" config key into one DeviceSpec per target device.
+ *
+ * Format: comma-separated entries of deviceName[:platformVersion], for example
+ *   devices=Samsung Galaxy S23:13.0,Google Pixel 7:13.0
+ *
+ * When "devices" is not set the matrix has a single entry built from the classic
+ * deviceName / platformVersion / udid keys, so existing configs keep working.
+ *
+ * BaseTest holds a single driver per JVM, so the matrix is expanded by the CI job rather than
+ * in-process: main() prints one selector (index) per device and the job runs one Maven process
+ * per selector in parallel, with -Ddevice=<index> and its own -DbuildDirectory:
+ *   java -Denv=browserstack -cp target/classes com.appium.providers.DeviceMatrix
+ */
+public class DeviceMatrix {
+    private static final Logger logger = Logger.getLogger(DeviceMatrix.class.getName());
+
+    private final List<DeviceSpec> devices;
+
+    public DeviceMatrix(List<DeviceSpec> devices) {
+        if (devices.isEmpty()) {
+            throw new IllegalArgumentException("Device matrix must contain at least one device");
+        }
+        this.devices = List.copyOf(devices);
+    }
+
+    public static DeviceMatrix fromConfig() {
+        String matrix = ConfigManager.get("devices", "");
+        if (matrix.isBlank()) {
+            return new DeviceMatrix(List.of(new DeviceSpec(
+                    ConfigManager.get("deviceName", "Android Emulator"),
+                    ConfigManager.get("platformVersion", ""),
+                    ConfigManager.get("udid", ""))));
+        }
+        return parse(matrix);
+    }
+
+    public static DeviceMatrix parse(String matrix) {
+        List<DeviceSpec> devices = new ArrayList<>();
+        for (String entry : matrix.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) continue;
+            int separator = trimmed.lastIndexOf(':');
+            if (separator < 0) {
+                devices.add(new DeviceSpec(trimmed, "", ""));
+            } else {
+                devices.add(new DeviceSpec(trimmed.substring(0, separator).trim(),
+                        trimmed.substring(separator + 1).trim(), ""));
+            }
+        }
+        return new DeviceMatrix(devices);
+    }
+
+    public List<DeviceSpec> devices() {
+        return devices;
+    }
+
+    /**
+     * Picks one device by name or zero-based index (e.g. from -Ddevice=1 in a sharded CI job).
+     * Returns the first device when no selector is given.
+     */
+    public DeviceSpec select(String selector) {
+        if (selector == null || selector.isBlank()) {
+            return devices.get(0);
+        }
+        for (DeviceSpec device : devices) {
+            if (device.deviceName().equalsIgnoreCase(selector.trim())) {
+                return device;
+            }
+        }
+        try {
+            return devices.get(Integer.parseInt(selector.trim()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("No device '" + selector + "' in matrix " + devices);
+        }
+    }
+
+    /**
+     * Prints the zero-based index of every device in the configured matrix, one per line,
+     * for CI jobs that run the suite once per device.
+     */
+    public static void main(String[] args) {
+        List<DeviceSpec> devices = fromConfig().devices();
+        for (int i = 0; i < devices.size(); i++) {
+            logger.info("Device " + i + ": " + devices.get(i));
+            System.out.println(i);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.appium.providers;
+
+/**
+ * DeviceSpec - One entry of the device matrix.
+ *
+ * @param deviceName      device or emulator name as the provider knows it
+ * @param platformVersion Android version, empty to let the provider choose
+ * @param udid            device serial for self-hosted servers, empty otherwise
+ */
+public record DeviceSpec(String deviceName, String platformVersion, String udid) {
+
+    @Override
+    public String toString() {
+        return platformVersion.isEmpty() ? deviceName : deviceName + " " + platformVersion;
+    }
+}
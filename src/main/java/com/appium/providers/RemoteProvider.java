@@ -0,0 +1,21 @@
+package com.appium.providers;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+
+/**
+ * RemoteProvider - Self-hosted Appium server (local machine, Docker or a remote VM).
+ * Needs no credentials; only the shared Android capabilities are sent.
+ */
+public class RemoteProvider implements CloudProvider {
+
+    @Override
+    public String id() {
+        return "remote";
+    }
+
+    @Override
+    public Capabilities capabilities(SessionRequest request) {
+        return ImmutableCapabilities.copyOf(AndroidCapabilities.base(request.device()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.appium.providers;
+
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * SauceLabsProvider - Sauce Labs real devices and emulators.
+ *
+ * Credentials: -Dsauce.username / -Dsauce.accessKey or SAUCE_USERNAME / SAUCE_ACCESS_KEY.
+ * Build and session names go into the W3C "sauce:options" capability.
+ */
+public class SauceLabsProvider implements CloudProvider {
+    private static final Logger logger = Logger.getLogger(SauceLabsProvider.class.getName());
+
+    @Override
+    public String id() {
+        return "saucelabs";
+    }
+
+    @Override
+    public Capabilities capabilities(SessionRequest request) {
+        UiAutomator2Options options = AndroidCapabilities.base(request.device());
+        Optional<Credentials> credentials = Credentials.resolve(id(),
+                "sauce.username", "sauce.accessKey", "SAUCE_USERNAME", "SAUCE_ACCESS_KEY");
+        if (credentials.isPresent()) {
+            options.setCapability("sauce:options", Map.of(
+                    "username", credentials.get().user(),
+                    "accessKey", credentials.get().key(),
+                    "build", request.buildName(),
+                    "name", request.sessionName()));
+        } else {
+            logger.warning("Sauce Labs credentials not found, session will be rejected by the hub");
+        }
+        return ImmutableCapabilities.copyOf(options);
+    }
+}
@@ -0,0 +1,32 @@
+package com.appium.providers;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * SessionRequest - Everything a provider needs to build capabilities for one session.
+ *
+ * @param device      target device from the matrix
+ * @param buildName   groups all sessions of one CI run on the provider dashboard
+ * @param sessionName human readable name of this session
+ */
+public record SessionRequest(DeviceSpec device, String buildName, String sessionName) {
+    private static final String BUILD_NAME = resolveBuildName();
+
+    /**
+     * Creates a request that uses the build name shared by the whole run.
+     */
+    public static SessionRequest of(DeviceSpec device, String testName) {
+        return new SessionRequest(device, BUILD_NAME, testName + " [" + device + "]");
+    }
+
+    private static String resolveBuildName() {
+        String build = System.getProperty("build");
+        if (build == null || build.isBlank()) build = System.getenv("BUILD_TAG");           // Jenkins
+        if (build == null || build.isBlank()) build = System.getenv("GITHUB_RUN_ID");       // GitHub Actions
+        if (build == null || build.isBlank()) {
+            build = "local-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        }
+        return build;
+    }
+}
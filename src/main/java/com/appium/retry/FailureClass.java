@@ -0,0 +1,56 @@
+package com.appium.retry;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * FailureClass - Coarse classification of a failure, used to pick a retry budget.
+ *
+ * - TRANSPORT:       the command never reached the device or the reply was lost (worth retrying
+ *                    if the command is idempotent, or if it was never sent, see neverSent())
+ * - STALE_ELEMENT:   the screen re-rendered under us (worth retrying with a fresh lookup)
+ * - NO_SUCH_ELEMENT: the element is really missing (usually a real bug or a wrong screen)
+ * - SESSION_DEAD:    the Appium session is gone; nothing on this session can succeed
+ * - OTHER:           assertions and everything else
+ */
+public enum FailureClass {
+    TRANSPORT,
+    STALE_ELEMENT,
+    NO_SUCH_ELEMENT,
+    SESSION_DEAD,
+    OTHER;
+
+    /**
+     * Classifies a failure by walking its cause chain; the outermost recognised type wins.
+     */
+    public static FailureClass of(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StaleElementReferenceException) return STALE_ELEMENT;
+            if (cause instanceof NoSuchElementException) return NO_SUCH_ELEMENT;
+            if (cause instanceof NoSuchSessionException || cause instanceof SessionNotCreatedException) return SESSION_DEAD;
+            if (cause instanceof UnreachableBrowserException
+                    || cause instanceof ConnectException
+                    || cause instanceof SocketTimeoutException
+                    || cause instanceof TimeoutException) return TRANSPORT;
+        }
+        return OTHER;
+    }
+
+    /**
+     * True if the connection to the server could not be made, so the command cannot have run.
+     * A timeout means the opposite: the command may have run and only the reply was lost.
+     */
+    public static boolean neverSent(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException) return true;
+        }
+        return false;
+    }
+}
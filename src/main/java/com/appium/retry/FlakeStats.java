@@ -0,0 +1,177 @@
+package com.appium.retry;
+
+import com.appium.config.ConfigManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * FlakeStats - Per-test flake history persisted between runs in a local tab-separated file.
+ *
+ * File: -Dretry.statsFile or .test-history/flake-stats.tsv, one line per test:
+ * {@code <class>#<method> TAB runs TAB passes TAB flakyPasses TAB consecutiveFailures TAB skipsSinceRun}
+ *
+ * Thresholds (config or -D):
+ * - retry.flaky.minRuns=3       history needed before a test can be called flaky
+ * - retry.flaky.rate=10         percent of runs that needed a retry to pass
+ * - retry.brokenAfter=3         consecutive red runs after which a test is known broken
+ * - retry.brokenProbeEvery=5    a known-broken test still runs every 5th time, so a fix is
+ *                               noticed without anyone passing -Dretry.runBroken=true
+ *
+ * Several JVMs (one per device of a parallel matrix run) may share the file. Each keeps the
+ * outcomes it recorded and save() replays them onto the file's current content under a file
+ * lock, so concurrent runs add up instead of overwriting each other.
+ */
+public class FlakeStats {
+    private static final Logger logger = Logger.getLogger(FlakeStats.class.getName());
+
+    private final Map<String, TestStats> stats = new ConcurrentHashMap<>();
+    // Changes recorded by this JVM since the last save, replayed onto the file on save
+    private final Map<String, List<UnaryOperator<TestStats>>> unsaved = new HashMap<>();
+    private final int minRuns = ConfigManager.setting("retry.flaky.minRuns", 3);
+    private final int flakyPercent = ConfigManager.setting("retry.flaky.rate", 10);
+    private final int brokenAfter = ConfigManager.setting("retry.brokenAfter", 3);
+    private final int brokenProbeEvery = ConfigManager.setting("retry.brokenProbeEvery", 5);
+
+    /**
+     * Stats loaded once from the default file and shared by the listener, analyzer and BaseTest.
+     */
+    public static FlakeStats shared() {
+        return Shared.INSTANCE;
+    }
+
+    private static final class Shared {
+        static final FlakeStats INSTANCE = loadShared();
+
+        private static FlakeStats loadShared() {
+            FlakeStats loaded = new FlakeStats();
+            try {
+                loaded.load(file());
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to load flake stats, starting empty", e);
+            }
+            return loaded;
+        }
+    }
+
+    public static Path file() {
+        return Paths.get(System.getProperty("retry.statsFile", ".test-history/flake-stats.tsv"));
+    }
+
+    public TestStats get(String testId) {
+        return stats.getOrDefault(testId, TestStats.NONE);
+    }
+
+    public void recordPass(String testId, boolean retried) {
+        update(testId, test -> test.withPass(retried));
+    }
+
+    public void recordFailure(String testId) {
+        update(testId, TestStats::withFailure);
+    }
+
+    public boolean isKnownFlaky(String testId) {
+        TestStats test = get(testId);
+        return test.runs() >= minRuns && test.flakeRate() * 100 >= flakyPercent;
+    }
+
+    public boolean isKnownBroken(String testId) {
+        return get(testId).consecutiveFailures() >= brokenAfter;
+    }
+
+    /**
+     * True if a known-broken test should be skipped this time, in which case the skip is counted.
+     * Every retry.brokenProbeEvery-th run is let through as a probe; its outcome resets the count.
+     */
+    public boolean skipAsBroken(String testId) {
+        if (!isKnownBroken(testId) || get(testId).skipsSinceRun() >= brokenProbeEvery - 1) {
+            return false;
+        }
+        update(testId, TestStats::withBrokenSkip);
+        return true;
+    }
+
+    private synchronized void update(String testId, UnaryOperator<TestStats> change) {
+        stats.put(testId, change.apply(get(testId)));
+        unsaved.computeIfAbsent(testId, id -> new ArrayList<>()).add(change);
+    }
+
+    public void load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] parts = line.split("\t");
+                // Files written before skipsSinceRun was added have 5 columns
+                if (parts.length != 5 && parts.length != 6) {
+                    throw new IOException("Malformed flake stats line in " + file + ": " + line);
+                }
+                stats.put(parts[0], new TestStats(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                        Integer.parseInt(parts[3]), Integer.parseInt(parts[4]),
+                        parts.length == 6 ? Integer.parseInt(parts[5]) : 0));
+            }
+        }
+    }
+
+    /**
+     * Replays the outcomes recorded since the last save onto the file's current content and
+     * writes the result back, holding a lock on {@code <file>.lock} meanwhile.
+     */
+    public synchronized void save(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            FlakeStats current = new FlakeStats();
+            current.load(file);
+            unsaved.forEach((testId, changes) -> {
+                TestStats test = current.get(testId);
+                for (UnaryOperator<TestStats> change : changes) {
+                    test = change.apply(test);
+                }
+                current.stats.put(testId, test);
+            });
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            write(temp, current.stats);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            stats.putAll(current.stats);
+            unsaved.clear();
+        }
+    }
+
+    private static void write(Path file, Map<String, TestStats> stats) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# test\truns\tpasses\tflakyPasses\tconsecutiveFailures\tskipsSinceRun");
+            writer.newLine();
+            for (Map.Entry<String, TestStats> entry : new TreeMap<>(stats).entrySet()) {
+                TestStats test = entry.getValue();
+                writer.write(entry.getKey() + "\t" + test.runs() + "\t" + test.passes() + "\t"
+                        + test.flakyPasses() + "\t" + test.consecutiveFailures() + "\t" + test.skipsSinceRun());
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.appium.retry;
+
+/**
+ * Thrown instead of running a test whose recent history is all red, so it fails at once
+ * without taking a device. Run it anyway with -Dretry.runBroken=true.
+ */
+public class KnownBrokenTestException extends RuntimeException {
+
+    public KnownBrokenTestException(String testId, TestStats stats) {
+        super(testId + " failed its last " + stats.consecutiveFailures()
+                + " runs; not executed (use -Dretry.runBroken=true to run it)");
+    }
+}
@@ -0,0 +1,141 @@
+package com.appium.retry;
+
+import com.appium.config.ConfigManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * RetryPolicy - Retries an action with a separate budget per FailureClass.
+ *
+ * A transport blip or a stale element is worth another attempt; a missing element or a dead
+ * session is not, and retrying it only burns device time. Budgets are read from the active
+ * config (or -D overrides), e.g. for command-level retries:
+ *   retry.command.transport=2
+ *   retry.command.stale=1
+ *   retry.command.noSuchElement=0
+ *   retry.command.sessionDead=0
+ *   retry.command.other=0
+ *   retry.command.backoffMs=500
+ *
+ * call()/run() are for idempotent commands (find, getText, activateApp), which are safe to
+ * repeat after a lost reply. Actions that change state (click, sendKeys) use callAction() /
+ * runAction(): a transport failure is only retried when the command was never sent, since
+ * replaying a click whose reply timed out would press the key twice.
+ *
+ * Usage:
+ *   RetryPolicy.commandLevel().run(() -> driver.activateApp(pkg));
+ *   RetryPolicy.commandLevel().runAction(() -> element.click());
+ */
+public class RetryPolicy {
+    private static final Logger logger = Logger.getLogger(RetryPolicy.class.getName());
+
+    private final Map<FailureClass, Integer> budgets;
+    private final Duration backoff;
+
+    public RetryPolicy(Map<FailureClass, Integer> budgets, Duration backoff) {
+        this.budgets = Collections.unmodifiableMap(new EnumMap<>(budgets));
+        this.backoff = backoff;
+    }
+
+    /**
+     * Budgets for retrying a single driver command in place.
+     */
+    public static RetryPolicy commandLevel() {
+        return CommandLevel.INSTANCE;
+    }
+
+    /**
+     * Budgets for re-running a whole test method (see base.RetryAnalyzer).
+     */
+    public static RetryPolicy methodLevel() {
+        return MethodLevel.INSTANCE;
+    }
+
+    private static final class CommandLevel {
+        static final RetryPolicy INSTANCE = fromConfig("retry.command", 2, 1, 500);
+    }
+
+    private static final class MethodLevel {
+        static final RetryPolicy INSTANCE = fromConfig("retry.method", 1, 1, 0);
+    }
+
+    private static RetryPolicy fromConfig(String prefix, int transport, int stale, int backoffMs) {
+        Map<FailureClass, Integer> budgets = new EnumMap<>(FailureClass.class);
+        budgets.put(FailureClass.TRANSPORT, ConfigManager.setting(prefix + ".transport", transport));
+        budgets.put(FailureClass.STALE_ELEMENT, ConfigManager.setting(prefix + ".stale", stale));
+        budgets.put(FailureClass.NO_SUCH_ELEMENT, ConfigManager.setting(prefix + ".noSuchElement", 0));
+        budgets.put(FailureClass.SESSION_DEAD, ConfigManager.setting(prefix + ".sessionDead", 0));
+        budgets.put(FailureClass.OTHER, ConfigManager.setting(prefix + ".other", 0));
+        return new RetryPolicy(budgets, Duration.ofMillis(ConfigManager.setting(prefix + ".backoffMs", backoffMs)));
+    }
+
+    public int budget(FailureClass failureClass) {
+        return budgets.getOrDefault(failureClass, 0);
+    }
+
+    public <T> T call(Supplier<T> action) {
+        return call(action, true);
+    }
+
+    public void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Like call(), for actions that must not run twice: a lost reply is not retried.
+     */
+    public <T> T callAction(Supplier<T> action) {
+        return call(action, false);
+    }
+
+    public void runAction(Runnable action) {
+        callAction(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T call(Supplier<T> action, boolean idempotent) {
+        Map<FailureClass, Integer> used = new EnumMap<>(FailureClass.class);
+        while (true) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                FailureClass failureClass = FailureClass.of(e);
+                if (!idempotent && failureClass == FailureClass.TRANSPORT && !FailureClass.neverSent(e)) {
+                    throw e;
+                }
+                int attempt = used.merge(failureClass, 1, Integer::sum);
+                if (attempt > budget(failureClass)) {
+                    throw e;
+                }
+                logger.info("Retrying after " + failureClass + " (" + attempt + "/" + budget(failureClass)
+                        + "): " + e.getMessage());
+                if (!pause(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private boolean pause(int attempt) {
+        if (backoff.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(backoff.multipliedBy(attempt).toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
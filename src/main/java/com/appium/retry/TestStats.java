@@ -0,0 +1,33 @@
+package com.appium.retry;
+
+/**
+ * TestStats - Outcome history of one test method across runs.
+ *
+ * @param runs                final outcomes recorded (retried attempts count once)
+ * @param passes              runs that ended green
+ * @param flakyPasses         runs that ended green only after a retry
+ * @param consecutiveFailures red runs since the last green one
+ * @param skipsSinceRun       runs skipped as known broken since the test last ran
+ */
+public record TestStats(int runs, int passes, int flakyPasses, int consecutiveFailures, int skipsSinceRun) {
+    public static final TestStats NONE = new TestStats(0, 0, 0, 0, 0);
+
+    public TestStats withPass(boolean retried) {
+        return new TestStats(runs + 1, passes + 1, flakyPasses + (retried ? 1 : 0), 0, 0);
+    }
+
+    public TestStats withFailure() {
+        return new TestStats(runs + 1, passes, flakyPasses, consecutiveFailures + 1, 0);
+    }
+
+    public TestStats withBrokenSkip() {
+        return new TestStats(runs, passes, flakyPasses, consecutiveFailures, skipsSinceRun + 1);
+    }
+
+    /**
+     * Share of runs that needed a retry to pass.
+     */
+    public double flakeRate() {
+        return runs == 0 ? 0.0 : (double) flakyPasses / runs;
+    }
+}
@@ -1,10 +1,24 @@
 package base;
 
+import com.appium.cache.ElementCache;
 import com.appium.config.ConfigManager;
+import com.appium.events.EventBus;
+import com.appium.impact.RecordingCommandExecutor;
+import com.appium.providers.CloudProvider;
+import com.appium.providers.CloudProviders;
+import com.appium.providers.DeviceMatrix;
+import com.appium.providers.DeviceSpec;
+import com.appium.providers.SessionRequest;
+import com.appium.retry.FlakeStats;
+import com.appium.retry.KnownBrokenTestException;
 import io.appium.java_client.android.AndroidDriver;
-import io.appium.java_client.android.options.UiAutomator2Options;
 import io.appium.java_client.service.local.AppiumDriverLocalService;
 import io.appium.java_client.service.local.AppiumServiceBuilder;
+import org.openqa.selenium.Capabilities;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 
@@ -13,15 +27,19 @@ import java.io.InputStreamReader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.Map;
 import java.util.logging.Logger;
 
-public class BaseTest {
+public class BaseTest implements IHookable {
     protected static final Logger logger = Logger.getLogger(BaseTest.class.getName());
     protected static AndroidDriver driver;
     protected static AppiumDriverLocalService service;
+    protected static ElementCache elements;
+    private static String leasedDevice;
+    private static long leaseStart;
 
     @BeforeSuite(alwaysRun = true)
-    public void globalSetup() throws MalformedURLException {
+    public void globalSetup(ITestContext context) throws MalformedURLException {
         // Load config
         ConfigManager.load();
         
@@ -53,55 +71,54 @@ public class BaseTest {
         } else {
             logger.info("Using remote Appium server at: " + serverUrl);
         }
-        String deviceName = ConfigManager.get("deviceName", "Android Emulator");
-        String platformVersion = ConfigManager.get("platformVersion", "");
-        String udid = ConfigManager.get("udid", "");
-        String automationName = ConfigManager.get("automationName", "UiAutomator2");
-        boolean noReset = Boolean.parseBoolean(ConfigManager.get("noReset", "true"));
-        String appPackage = ConfigManager.get("appPackage", "");
-        String appActivity = ConfigManager.get("appActivity", "");
-
-        UiAutomator2Options options = new UiAutomator2Options()
-                .setPlatformName("Android")
-                .setDeviceName(deviceName)
-                .setAutomationName(automationName)
-                .setNoReset(noReset)
-                .setNewCommandTimeout(Duration.ofSeconds(120));
-        if (!platformVersion.isEmpty()) options.setPlatformVersion(platformVersion);
-        if (!udid.isEmpty()) options.setUdid(udid);
-        if (!appPackage.isEmpty()) options.setAppPackage(appPackage);
-        if (!appActivity.isEmpty()) options.setAppActivity(appActivity);
-        
-        // Add cloud provider credentials if available
-        String bsUser = System.getProperty("browserstack.user");
-        String bsKey = System.getProperty("browserstack.key");
-        if (bsUser != null && bsKey != null) {
-            options.setCapability("browserstack.user", bsUser);
-            options.setCapability("browserstack.key", bsKey);
-            logger.info("BrowserStack credentials configured");
-        }
-        
-        String sauceUser = System.getProperty("sauce.username");
-        String sauceKey = System.getProperty("sauce.accessKey");
-        if (sauceUser != null && sauceKey != null) {
-            options.setCapability("sauce:options", new java.util.HashMap<String, Object>() {{
-                put("username", sauceUser);
-                put("accessKey", sauceKey);
-            }});
-            logger.info("Sauce Labs credentials configured");
-        }
+        // Capabilities are built fresh for each session by the configured provider
+        CloudProvider provider = CloudProviders.fromConfig();
+        DeviceSpec device = DeviceMatrix.fromConfig().select(System.getProperty("device"));
+        SessionRequest request = SessionRequest.of(device, context.getSuite().getName());
+        Capabilities capabilities = provider.capabilities(request);
+        logger.info("Using provider '" + provider.id() + "' for " + request.sessionName()
+                + " (build " + request.buildName() + ")");
 
         logger.info("Starting AndroidDriver session at: " + serverUrl);
-        driver = new AndroidDriver(new URL(serverUrl), options);
+        // Recording executor attributes locators/screens to the running test (see ImpactListener)
+        driver = new AndroidDriver(new RecordingCommandExecutor(new URL(serverUrl)), capabilities);
         // Small implicit wait to make demo tests less flaky
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
+        // Reuse element handles for stable widgets until the activity changes
+        elements = ElementCache.forSession(driver);
+
+        leasedDevice = device.toString();
+        leaseStart = System.currentTimeMillis();
+        EventBus.shared().publish("device.lease", Map.of(
+                "device", leasedDevice,
+                "provider", provider.id(),
+                "session", String.valueOf(driver.getSessionId())));
+    }
+
+    /**
+     * Fails tests with a long red streak (see FlakeStats) before they take the device, except
+     * for a periodic probe run (retry.brokenProbeEvery). Pass -Dretry.runBroken=true to run
+     * them anyway, e.g. after a fix.
+     */
+    @Override
+    public void run(IHookCallBack callBack, ITestResult testResult) {
+        String testId = RetryAnalyzer.testId(testResult);
+        FlakeStats stats = FlakeStats.shared();
+        if (!Boolean.getBoolean("retry.runBroken") && stats.skipAsBroken(testId)) {
+            throw new KnownBrokenTestException(testId, stats.get(testId));
+        }
+        callBack.runTestMethod(testResult);
     }
 
     @AfterSuite(alwaysRun = true)
     public void globalTeardown() {
         if (driver != null) {
             logger.info("Quitting AndroidDriver session");
+            ElementCache.release(driver.getSessionId());
             driver.quit();
+            EventBus.shared().publish("device.release", Map.of(
+                    "device", leasedDevice,
+                    "heldMs", System.currentTimeMillis() - leaseStart));
         }
         
         // Stop Appium server (only if running locally)
@@ -0,0 +1,49 @@
+package base;
+
+import com.appium.impact.ImpactRecorder;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * ImpactListener - Attributes driver commands to the running test method for test-impact selection.
+ *
+ * Registered in testng.xml. Each test method gets a fresh footprint; at the end of the suite the
+ * footprints are merged into the file read by com.appium.impact.ImpactAnalyzer.
+ */
+public class ImpactListener implements ITestListener, ISuiteListener {
+    private static final Logger logger = Logger.getLogger(ImpactListener.class.getName());
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        ImpactRecorder.begin(result.getTestClass().getName() + "#" + result.getMethod().getMethodName());
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        ImpactRecorder.end();
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        ImpactRecorder.end();
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        ImpactRecorder.end();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        try {
+            ImpactRecorder.save(ImpactRecorder.footprintFile());
+        } catch (IOException e) {
+            logger.warning("Failed to save test footprints: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package base;
+
+import com.appium.config.ConfigManager;
+import com.appium.retry.FailureClass;
+import com.appium.retry.FlakeStats;
+import com.appium.retry.KnownBrokenTestException;
+import com.appium.retry.RetryPolicy;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * RetryAnalyzer - Method-level retries driven by failure class and flake history.
+ *
+ * - TRANSPORT / STALE_ELEMENT failures are retried within RetryPolicy.methodLevel() budgets
+ * - Tests with a known flake history get up to retry.method.flaky (default 2) extra attempts
+ *   for any failure except a dead session
+ * - Everything else (real misses, assertions, known-broken tests) fails on the first attempt
+ *
+ * Attached to every test by RetryListener; TestNG creates one instance per test method
+ * (and per data-provider row). The instance tracks whether the current invocation was retried;
+ * RetryListener consumes that flag on the final outcome, which also resets the budgets for the
+ * next invocation.
+ */
+public class RetryAnalyzer implements IRetryAnalyzer {
+    private static final Logger logger = Logger.getLogger(RetryAnalyzer.class.getName());
+
+    private final Map<FailureClass, Integer> used = new EnumMap<>(FailureClass.class);
+    private int flakyRetries;
+    private boolean retried;
+
+    @Override
+    public synchronized boolean retry(ITestResult result) {
+        Throwable failure = result.getThrowable();
+        if (failure == null || failure instanceof KnownBrokenTestException) {
+            return false;
+        }
+        String testId = testId(result);
+        FailureClass failureClass = FailureClass.of(failure);
+        RetryPolicy policy = RetryPolicy.methodLevel();
+
+        boolean retry;
+        int attempt = used.merge(failureClass, 1, Integer::sum);
+        if (attempt <= policy.budget(failureClass)) {
+            retry = true;
+        } else {
+            retry = failureClass != FailureClass.SESSION_DEAD
+                    && FlakeStats.shared().isKnownFlaky(testId)
+                    && ++flakyRetries <= ConfigManager.setting("retry.method.flaky", 2);
+        }
+        if (retry) {
+            retried = true;
+            logger.info("Retrying " + testId + " after " + failureClass + ": " + failure.getMessage());
+        }
+        return retry;
+    }
+
+    /**
+     * True if the invocation that produced this final result needed a retry. Resets the
+     * analyzer so the next invocation of the same method starts with full budgets.
+     */
+    static boolean consumeRetried(ITestResult result) {
+        if (!(result.getMethod().getRetryAnalyzer(result) instanceof RetryAnalyzer analyzer)) {
+            return false;
+        }
+        synchronized (analyzer) {
+            boolean wasRetried = analyzer.retried;
+            analyzer.retried = false;
+            analyzer.used.clear();
+            analyzer.flakyRetries = 0;
+            return wasRetried;
+        }
+    }
+
+    static String testId(ITestResult result) {
+        return result.getTestClass().getName() + "#" + result.getMethod().getMethodName();
+    }
+}
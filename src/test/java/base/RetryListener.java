@@ -0,0 +1,52 @@
+package base;
+
+import com.appium.retry.FlakeStats;
+import com.appium.retry.KnownBrokenTestException;
+import org.testng.IAnnotationTransformer;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.annotations.ITestAnnotation;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.logging.Logger;
+
+/**
+ * RetryListener - Installs RetryAnalyzer on every test and keeps FlakeStats up to date.
+ *
+ * Registered in testng.xml. Only the final outcome of a test counts towards its history;
+ * attempts that were retried (reported by TestNG as skipped) are ignored.
+ */
+public class RetryListener implements IAnnotationTransformer, ITestListener, ISuiteListener {
+    private static final Logger logger = Logger.getLogger(RetryListener.class.getName());
+
+    @Override
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        annotation.setRetryAnalyzer(RetryAnalyzer.class);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        FlakeStats.shared().recordPass(RetryAnalyzer.testId(result), RetryAnalyzer.consumeRetried(result));
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        RetryAnalyzer.consumeRetried(result);
+        if (!(result.getThrowable() instanceof KnownBrokenTestException)) {
+            FlakeStats.shared().recordFailure(RetryAnalyzer.testId(result));
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        try {
+            FlakeStats.shared().save(FlakeStats.file());
+        } catch (IOException e) {
+            logger.warning("Failed to save flake stats: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package base;
+
+import com.appium.events.CommandLatency;
+import com.appium.events.EventBus;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RunEventListener - Publishes suite and test progress to the live run feed (EventBus).
+ *
+ * Registered in testng.xml. Events:
+ * - suite.start / suite.finish
+ * - test.start / test.finish (status, duration, per-command latency summary)
+ * - suite.progress after every finished test (finished, running, pending)
+ */
+public class RunEventListener implements ITestListener, ISuiteListener {
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger finished = new AtomicInteger();
+
+    @Override
+    public void onStart(ISuite suite) {
+        total.set(suite.getAllMethods().size());
+        EventBus.shared().publish("suite.start", Map.of("suite", suite.getName(), "tests", total.get()));
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        running.incrementAndGet();
+        CommandLatency.reset();
+        EventBus.shared().publish("test.start", Map.of("test", RetryAnalyzer.testId(result)));
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finish(result, "passed");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finish(result, "failed");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        finish(result, result.wasRetried() ? "retried" : "skipped");
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        // The shared bus outlives the suite (other suites, BaseTest teardown) and is closed at JVM exit
+        EventBus.shared().publish("suite.finish", Map.of("suite", suite.getName(), "finished", finished.get()));
+    }
+
+    private void finish(ITestResult result, String status) {
+        // Tests skipped by a failed configuration method never reported a start
+        running.updateAndGet(count -> Math.max(0, count - 1));
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("test", RetryAnalyzer.testId(result));
+        fields.put("status", status);
+        fields.put("durationMs", result.getEndMillis() - result.getStartMillis());
+        fields.put("commands", CommandLatency.summary());
+        EventBus.shared().publish("test.finish", fields);
+
+        // A retried attempt will run again, so it does not count as finished
+        int done = result.wasRetried() ? finished.get() : finished.incrementAndGet();
+        EventBus.shared().publish("suite.progress", Map.of(
+                "finished", done,
+                "running", running.get(),
+                "pending", Math.max(0, total.get() - done - running.get())));
+    }
+}
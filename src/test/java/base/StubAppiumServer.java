@@ -0,0 +1,218 @@
+package base;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * StubAppiumServer - Minimal in-process W3C WebDriver endpoint for framework tests.
+ *
+ * Speaks just enough of the protocol for a RemoteWebDriver to create a session, find elements,
+ * click them and read their text, without an emulator or a real Appium server. Every request is
+ * counted by command name (and under "total") so tests can assert how many round trips the
+ * framework made.
+ *
+ * Supported commands (counter name in brackets):
+ * - POST   /session                               [newSession]
+ * - POST   /session/{id}/element                  [findElement]
+ * - POST   /session/{id}/element/{eid}/click      [click]
+ * - GET    /session/{id}/element/{eid}/text       [text]
+ * - POST   /session/{id}/back                     [back]
+ * - POST   /session/{id}/execute/sync               [getCurrentActivity, getCurrentPackage, activateApp]
+ *   for the "mobile:" extension scripts java-client sends to Appium 2
+ * - DELETE /session/{id}                          [deleteSession]
+ */
+public class StubAppiumServer {
+    private static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static final String SESSION_ID = "stub-session";
+    private static final Pattern ELEMENT_COMMAND = Pattern.compile("/session/[^/]+/element/([^/]+)/(click|text)");
+
+    private final Json json = new Json();
+    private final HttpServer server;
+    private final Map<String, String> elementsByLocator = new ConcurrentHashMap<>();
+    private final Map<String, String> textByElement = new ConcurrentHashMap<>();
+    private final Set<String> staleElements = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final Map<String, Runnable> clickActions = new ConcurrentHashMap<>();
+    private volatile String activity = ".Calculator";
+    private volatile String appPackage = "com.google.android.calculator";
+
+    public StubAppiumServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public URL getUrl() throws MalformedURLException {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    /**
+     * Makes a locator value (the "value" of a find request) resolve to the given element id.
+     * Re-registering a locator marks the element id it previously resolved to as stale,
+     * the same way a re-rendered view invalidates old handles on a real device.
+     */
+    public void register(String locatorValue, String elementId, String text) {
+        String previous = elementsByLocator.put(locatorValue, elementId);
+        if (previous != null && !previous.equals(elementId)) {
+            staleElements.add(previous);
+        }
+        staleElements.remove(elementId);
+        textByElement.put(elementId, text);
+    }
+
+    /**
+     * Runs an action when the element is clicked, e.g. re-registering locators to simulate a
+     * click that opens another screen.
+     */
+    public void onClick(String elementId, Runnable action) {
+        clickActions.put(elementId, action);
+    }
+
+    public void clearClickActions() {
+        clickActions.clear();
+    }
+
+    public void setActivity(String activity) {
+        this.activity = activity;
+    }
+
+    public void setPackage(String appPackage) {
+        this.appPackage = appPackage;
+    }
+
+    public int count(String command) {
+        AtomicInteger counter = counters.get(command);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Returns the number of requests received since the last resetCounts(), whatever the command.
+     */
+    public int total() {
+        return total.get();
+    }
+
+    public void resetCounts() {
+        counters.clear();
+        total.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        Matcher elementCommand = ELEMENT_COMMAND.matcher(path);
+        if ("POST".equals(method) && path.equals("/session")) {
+            increment("newSession");
+            Map<String, Object> session = new HashMap<>();
+            session.put("sessionId", SESSION_ID);
+            session.put("capabilities", Map.of("platformName", "Android"));
+            reply(exchange, 200, session);
+        } else if ("DELETE".equals(method) && path.matches("/session/[^/]+")) {
+            increment("deleteSession");
+            reply(exchange, 200, null);
+        } else if ("POST".equals(method) && path.matches("/session/[^/]+/element")) {
+            increment("findElement");
+            Map<?, ?> locator = json.toType(body, Map.class);
+            String elementId = elementsByLocator.get(String.valueOf(locator.get("value")));
+            if (elementId == null) {
+                error(exchange, "no such element", "No element matches " + locator.get("value"));
+            } else {
+                reply(exchange, 200, Collections.singletonMap(ELEMENT_KEY, elementId));
+            }
+        } else if ("POST".equals(method) && path.matches("/session/[^/]+/back")) {
+            increment("back");
+            reply(exchange, 200, null);
+        } else if ("POST".equals(method) && path.matches("/session/[^/]+/execute/sync")) {
+            Map<?, ?> call = json.toType(body, Map.class);
+            String script = String.valueOf(call.get("script"));
+            switch (script) {
+                case "mobile: getCurrentActivity" -> {
+                    increment("getCurrentActivity");
+                    reply(exchange, 200, activity);
+                }
+                case "mobile: getCurrentPackage" -> {
+                    increment("getCurrentPackage");
+                    reply(exchange, 200, appPackage);
+                }
+                case "mobile: activateApp" -> {
+                    increment("activateApp");
+                    reply(exchange, 200, null);
+                }
+                default -> {
+                    total.incrementAndGet();
+                    error(exchange, "unknown method", "Unsupported script " + script);
+                }
+            }
+        } else if (elementCommand.matches()) {
+            String elementId = elementCommand.group(1);
+            String command = elementCommand.group(2);
+            increment(command);
+            if (staleElements.contains(elementId)) {
+                error(exchange, "stale element reference", "Element " + elementId + " is no longer attached");
+            } else if (command.equals("text")) {
+                reply(exchange, 200, textByElement.getOrDefault(elementId, ""));
+            } else {
+                reply(exchange, 200, null);
+                Runnable action = clickActions.get(elementId);
+                if (action != null) {
+                    action.run();
+                }
+            }
+        } else {
+            total.incrementAndGet();
+            error(exchange, "unknown command", method + " " + path);
+        }
+    }
+
+    private void increment(String command) {
+        total.incrementAndGet();
+        counters.computeIfAbsent(command, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private void error(HttpExchange exchange, String error, String message) throws IOException {
+        Map<String, Object> value = new HashMap<>();
+        value.put("error", error);
+        value.put("message", message);
+        value.put("stacktrace", "");
+        reply(exchange, 404, value);
+    }
+
+    private void reply(HttpExchange exchange, int status, Object value) throws IOException {
+        byte[] payload = json.toJson(Collections.singletonMap("value", value)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, payload.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(payload);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package tests;
 
 import base.BaseTest;
+import com.appium.retry.FailureClass;
+import com.appium.retry.RetryPolicy;
 import io.appium.java_client.AppiumBy;
 import org.openqa.selenium.By;
-import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WebDriverException;
 import org.testng.Assert;
 import org.testng.SkipException;
 import org.testng.annotations.Test;
@@ -19,23 +21,20 @@ public class CalculatorTest extends BaseTest {
         };
         for (String pkg : pkgs) {
             try {
-                driver.activateApp(pkg);
+                // Activating an app that is already in front is a no-op, so a lost reply may be retried
+                RetryPolicy.commandLevel().run(() -> driver.activateApp(pkg));
                 return true;
-            } catch (Exception ignored) { }
+            } catch (WebDriverException e) {
+                // A missing package means try the next one; a lost connection or session is a real failure
+                FailureClass failureClass = FailureClass.of(e);
+                if (failureClass == FailureClass.TRANSPORT || failureClass == FailureClass.SESSION_DEAD) {
+                    throw e;
+                }
+            }
         }
         return false;
     }
 
-    private WebElement findAny(By... locators) {
-        for (By by : locators) {
-            try {
-                WebElement el = driver.findElement(by);
-                if (el != null) return el;
-            } catch (Exception ignored) { }
-        }
-        throw new RuntimeException("Element not found using any provided locator");
-    }
-
     @Test
     public void addTwoNumbers() {
         if (!activateCalculator()) {
@@ -64,13 +63,13 @@ public class CalculatorTest extends BaseTest {
         By resultAosp = AppiumBy.id("com.android.calculator2:id/result");
         By resultSimple = AppiumBy.id("com.simplemobiletools.calculator:id/result");
 
-        // 2 + 3 =
-        findAny(twoGoogle, twoAosp, twoSimple).click();
-        findAny(plusGoogle, plusAosp, plusSimple).click();
-        findAny(threeGoogle, threeAosp, threeSimple).click();
-        findAny(equalsGoogle, equalsAosp, equalsSimple).click();
+        // 2 + 3 = (handles are cached per activity, so repeated keys skip the find round trip)
+        elements.click(twoGoogle, twoAosp, twoSimple);
+        elements.click(plusGoogle, plusAosp, plusSimple);
+        elements.click(threeGoogle, threeAosp, threeSimple);
+        elements.click(equalsGoogle, equalsAosp, equalsSimple);
 
-        String resultText = findAny(resultGoogle, resultGoogleAlt, resultAosp, resultSimple).getText();
+        String resultText = elements.text(resultGoogle, resultGoogleAlt, resultAosp, resultSimple);
         // Extract digits only
         String digits = resultText.replaceAll("[^0-9]", "");
         Assert.assertEquals(digits, "5", "Expected result of 2+3 to be 5 but was: " + resultText);
@@ -0,0 +1,92 @@
+package tests;
+
+import com.appium.providers.CloudProvider;
+import com.appium.providers.CloudProviders;
+import com.appium.providers.Credentials;
+import com.appium.providers.DeviceMatrix;
+import com.appium.providers.DeviceSpec;
+import com.appium.providers.SessionRequest;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.MutableCapabilities;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * CloudProviderTest - Verifies capability providers without opening a session.
+ */
+public class CloudProviderTest {
+
+    @Test
+    public void providersAreDiscoveredThroughServiceLoader() {
+        Assert.assertEquals(CloudProviders.get("browserstack").id(), "browserstack");
+        Assert.assertEquals(CloudProviders.get("SauceLabs").id(), "saucelabs");
+        Assert.assertEquals(CloudProviders.get("remote").id(), "remote");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void unknownProviderIsRejected() {
+        CloudProviders.get("nonexistent");
+    }
+
+    @Test
+    public void deviceMatrixIsExpandedAndSelectable() {
+        DeviceMatrix matrix = DeviceMatrix.parse("Samsung Galaxy S23:13.0, Google Pixel 7:14.0 ,Pixel Tablet");
+
+        Assert.assertEquals(matrix.devices().size(), 3);
+        Assert.assertEquals(matrix.select(null), new DeviceSpec("Samsung Galaxy S23", "13.0", ""));
+        Assert.assertEquals(matrix.select("1"), new DeviceSpec("Google Pixel 7", "14.0", ""));
+        Assert.assertEquals(matrix.select("pixel tablet"), new DeviceSpec("Pixel Tablet", "", ""));
+    }
+
+    @Test
+    public void capabilitiesAreImmutableAndNamedPerSession() {
+        DeviceSpec device = new DeviceSpec("Samsung Galaxy S23", "13.0", "");
+        Credentials.setForCurrentThread("saucelabs", new Credentials("user", "key"));
+        try {
+            Capabilities capabilities = CloudProviders.get("saucelabs")
+                    .capabilities(SessionRequest.of(device, "Smoke"));
+
+            Assert.assertFalse(capabilities instanceof MutableCapabilities);
+            Map<?, ?> sauce = (Map<?, ?>) capabilities.getCapability("sauce:options");
+            Assert.assertEquals(sauce.get("name"), "Smoke [Samsung Galaxy S23 13.0]");
+            Assert.assertEquals(capabilities.getCapability("appium:deviceName"), "Samsung Galaxy S23");
+        } finally {
+            Credentials.clearForCurrentThread();
+        }
+    }
+
+    @Test
+    public void parallelSessionsKeepTheirOwnCredentials() throws Exception {
+        CloudProvider provider = CloudProviders.get("browserstack");
+        DeviceSpec device = new DeviceSpec("Google Pixel 7", "13.0", "");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String user = "user-" + i;
+                results.add(pool.submit(() -> {
+                    Credentials.setForCurrentThread("browserstack", new Credentials(user, "key"));
+                    try {
+                        Capabilities capabilities = provider.capabilities(SessionRequest.of(device, user));
+                        Map<?, ?> options = (Map<?, ?>) capabilities.getCapability("bstack:options");
+                        return user.equals(options.get("userName"));
+                    } finally {
+                        Credentials.clearForCurrentThread();
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get(), "Session picked up another thread's credentials");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
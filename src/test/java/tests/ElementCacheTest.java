@@ -0,0 +1,175 @@
+package tests;
+
+import base.StubAppiumServer;
+import com.appium.cache.ElementCache;
+import com.appium.impact.FootprintStore;
+import com.appium.impact.ImpactRecorder;
+import com.appium.impact.RecordingCommandExecutor;
+import com.appium.impact.TestFootprint;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.NoSuchElementException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ElementCacheTest - Verifies ElementCache against a stub server, no device required.
+ *
+ * The driver goes through RecordingCommandExecutor and the cache is obtained with forSession(),
+ * the same way BaseTest wires them. The stub counts every WebDriver command, so each test
+ * asserts on the total number of round trips rather than on timing.
+ */
+public class ElementCacheTest {
+    private static final By TWO = AppiumBy.id("com.google.android.calculator:id/digit_2");
+    private static final By PLUS = AppiumBy.id("com.google.android.calculator:id/op_add");
+    private static final By RESULT = AppiumBy.id("com.google.android.calculator:id/result_final");
+    private static final By RESULT_AOSP = AppiumBy.id("com.android.calculator2:id/result");
+
+    private StubAppiumServer server;
+    private AndroidDriver driver;
+    private ElementCache elements;
+
+    @BeforeClass
+    public void startStub() throws IOException {
+        server = new StubAppiumServer();
+        server.start();
+        driver = new AndroidDriver(new RecordingCommandExecutor(server.getUrl()),
+                new ImmutableCapabilities("platformName", "Android"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        if (driver != null) {
+            ElementCache.release(driver.getSessionId());
+            driver.quit();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @BeforeMethod
+    public void resetState() {
+        server.register("com.google.android.calculator:id/digit_2", "digit-2", "2");
+        server.register("com.google.android.calculator:id/op_add", "op-add", "+");
+        server.register("com.android.calculator2:id/result", "result", "5");
+        server.setActivity(".Calculator");
+        server.clearClickActions();
+        elements = ElementCache.forSession(driver);
+        elements.clear();
+        server.resetCounts();
+    }
+
+    @Test
+    public void repeatedClicksSkipFindRoundTrip() {
+        for (int i = 0; i < 10; i++) {
+            elements.click(TWO);
+            elements.click(PLUS);
+        }
+
+        Assert.assertEquals(server.count("findElement"), 2, "Each key should be found once");
+        Assert.assertEquals(server.total(), 22, "2 finds + 20 clicks, no other round trips");
+    }
+
+    @Test
+    public void lookupsDoNotQueryTheScreen() {
+        elements.click(TWO);
+        elements.click(TWO);
+
+        Assert.assertEquals(server.total(), 3, "1 find + 2 clicks, the current activity is never asked for");
+    }
+
+    @Test
+    public void navigationDropsCachedElements() {
+        elements.click(TWO);
+        driver.navigate().back();
+        elements.click(TWO);
+
+        Assert.assertEquals(server.count("findElement"), 2, "Navigation should force a new lookup");
+        Assert.assertEquals(server.total(), 5, "2 finds + 2 clicks + back");
+    }
+
+    @Test
+    public void reportedActivityChangeDropsCachedElements() {
+        driver.currentActivity();
+        elements.click(TWO);
+        driver.currentActivity();
+        elements.click(TWO);
+        server.setActivity(".Settings");
+        driver.currentActivity();
+        elements.click(TWO);
+
+        Assert.assertEquals(server.count("findElement"), 2, "Only the new activity should force a new lookup");
+        Assert.assertEquals(server.total(), 8, "3 activity queries + 2 finds + 3 clicks");
+    }
+
+    @Test
+    public void clickThatOpensAnotherScreenIsRecoveredOnNextUse() {
+        // op_add opens a screen that has its own digit_2; the old handle is gone from the UI tree
+        server.onClick("op-add", () -> server.register(
+                "com.google.android.calculator:id/digit_2", "digit-2-next-screen", "2"));
+        elements.click(TWO);
+        elements.click(PLUS);
+        elements.click(TWO);
+
+        Assert.assertEquals(server.count("findElement"), 3, "The stale digit_2 should be looked up again");
+        Assert.assertEquals(server.count("click"), 4, "2 clicks + stale click + retried click");
+        Assert.assertEquals(server.total(), 7);
+    }
+
+    @Test
+    public void staleElementIsReResolved() {
+        elements.click(TWO);
+        server.register("com.google.android.calculator:id/digit_2", "digit-2-redrawn", "2");
+
+        elements.click(TWO);
+
+        Assert.assertEquals(server.count("findElement"), 2);
+        Assert.assertEquals(server.count("click"), 3, "Stale click should be retried on the fresh handle");
+        Assert.assertEquals(server.total(), 5);
+    }
+
+    @Test
+    public void matchingCandidateIsRemembered() {
+        Assert.assertEquals(elements.text(RESULT, RESULT_AOSP), "5");
+        Assert.assertEquals(elements.text(RESULT, RESULT_AOSP), "5");
+
+        Assert.assertEquals(server.count("findElement"), 2, "Missing candidate should only be tried once");
+        Assert.assertEquals(server.total(), 4, "2 finds + 2 text reads");
+    }
+
+    @Test
+    public void cacheHitsAreRecordedInTheFootprint() throws Exception {
+        elements.text(RESULT, RESULT_AOSP);
+        Path file = Files.createTempFile("footprints", ".tsv");
+        try {
+            ImpactRecorder.begin("tests.Cached#hit");
+            elements.text(RESULT, RESULT_AOSP);
+            ImpactRecorder.end();
+            ImpactRecorder.save(file);
+
+            Map<String, TestFootprint> saved = FootprintStore.load(file);
+            Assert.assertEquals(server.count("findElement"), 2, "Second lookup should be a cache hit");
+            Assert.assertEquals(saved.get("tests.Cached#hit").locators(), Set.of(
+                    "com.google.android.calculator:id/result_final", "com.android.calculator2:id/result"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void missingElementThrowsNoSuchElement() {
+        elements.find(RESULT);
+    }
+}
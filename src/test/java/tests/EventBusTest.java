@@ -0,0 +1,146 @@
+package tests;
+
+import com.appium.events.EventBus;
+import com.appium.events.EventSink;
+import com.appium.events.RollingFileSink;
+import com.appium.events.RunEvent;
+import com.appium.events.SocketSink;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EventBusTest - Verifies the live run feed: JSON lines, file rotation, socket streaming
+ * and non-blocking publishing from many threads.
+ */
+public class EventBusTest {
+
+    @Test
+    public void eventsAreRenderedAsSingleJsonLines() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("test", "tests.CalculatorTest#addTwoNumbers");
+        fields.put("message", "line1\n\"quoted\"");
+        fields.put("commands", Map.of("findElement", Map.of("count", 5L)));
+
+        String json = new RunEvent("test.finish", 1000L, "main", fields).toJson();
+
+        Assert.assertEquals(json, "{\"ts\":1000,\"type\":\"test.finish\",\"thread\":\"main\","
+                + "\"test\":\"tests.CalculatorTest#addTwoNumbers\",\"message\":\"line1\\n\\\"quoted\\\"\","
+                + "\"commands\":{\"findElement\":{\"count\":5}}}");
+    }
+
+    @Test
+    public void eventsFromManyThreadsReachTheFile() throws Exception {
+        Path dir = Files.createTempDirectory("events");
+        Path file = dir.resolve("run-events.ndjson");
+        EventBus bus = new EventBus(List.of(new RollingFileSink(file, 1 << 20, 1)), 100_000, Duration.ZERO);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    bus.publish("test.start", Map.of("test", "t" + i));
+                }
+                done.countDown();
+            });
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        bus.close();
+
+        Assert.assertEquals(Files.readAllLines(file).size(), 4000);
+        Assert.assertEquals(bus.dropped(), 0);
+        Assert.assertEquals(bus.queueDepth(), 0);
+    }
+
+    @Test
+    public void fileIsRotatedWhenFull() throws Exception {
+        Path dir = Files.createTempDirectory("events");
+        Path file = dir.resolve("run-events.ndjson");
+        EventBus bus = new EventBus(List.of(new RollingFileSink(file, 300, 2)), 1000, Duration.ZERO);
+        for (int i = 0; i < 50; i++) {
+            bus.publish("suite.progress", Map.of("finished", i));
+        }
+        bus.close();
+
+        Assert.assertTrue(Files.size(file) <= 300);
+        Assert.assertTrue(Files.exists(dir.resolve("run-events.ndjson.1")));
+        Assert.assertTrue(Files.exists(dir.resolve("run-events.ndjson.2")));
+        Assert.assertFalse(Files.exists(dir.resolve("run-events.ndjson.3")));
+    }
+
+    @Test
+    public void rotationCountsEncodedBytes() throws Exception {
+        Path dir = Files.createTempDirectory("events");
+        Path file = dir.resolve("run-events.ndjson");
+        RollingFileSink sink = new RollingFileSink(file, 100, 1);
+        String line = "\u00e9".repeat(30);   // 30 chars, 60 bytes in UTF-8
+        sink.write(line);
+        sink.write(line);
+        sink.close();
+
+        Assert.assertEquals(Files.size(file), 61);
+        Assert.assertEquals(Files.size(dir.resolve("run-events.ndjson.1")), 61);
+    }
+
+    @Test
+    public void eventsAreStreamedToSocketClients() throws Exception {
+        SocketSink sink = SocketSink.tcp(0);
+        EventBus bus = new EventBus(List.of(sink), 1000, Duration.ZERO);
+        try (Socket client = new Socket("127.0.0.1", sink.port());
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8))) {
+            bus.publish("device.lease", Map.of("device", "Pixel 7"));
+            bus.publish("device.release", Map.of("device", "Pixel 7"));
+
+            List<String> lines = new ArrayList<>();
+            lines.add(reader.readLine());
+            lines.add(reader.readLine());
+            Assert.assertTrue(lines.get(0).contains("\"type\":\"device.lease\""), lines.get(0));
+            Assert.assertTrue(lines.get(1).contains("\"type\":\"device.release\""), lines.get(1));
+        } finally {
+            bus.close();
+        }
+    }
+
+    @Test
+    public void publishNeverBlocksWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        EventSink blockedSink = new EventSink() {
+            @Override
+            public void write(String line) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void close() { }
+        };
+        EventBus bus = new EventBus(List.of(blockedSink), 10, Duration.ZERO);
+        for (int i = 0; i < 100; i++) {
+            bus.publish("test.start", Map.of("test", "t" + i));
+        }
+
+        Assert.assertTrue(bus.dropped() >= 89, "Overflowing events should be dropped, was " + bus.dropped());
+        release.countDown();
+        bus.close();
+    }
+}
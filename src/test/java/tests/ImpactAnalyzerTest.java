@@ -0,0 +1,146 @@
+package tests;
+
+import base.StubAppiumServer;
+import com.appium.impact.FootprintStore;
+import com.appium.impact.ImpactAnalyzer;
+import com.appium.impact.ImpactRecorder;
+import com.appium.impact.RecordingCommandExecutor;
+import com.appium.impact.TestFootprint;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * ImpactAnalyzerTest - Verifies test selection and suite generation from recorded footprints.
+ */
+public class ImpactAnalyzerTest {
+
+    private Map<String, TestFootprint> footprints() {
+        Map<String, TestFootprint> footprints = new TreeMap<>();
+
+        TestFootprint calculator = new TestFootprint();
+        calculator.add(TestFootprint.PACKAGE, "com.google.android.calculator");
+        calculator.add(TestFootprint.SCREEN, "com.android.calculator2.Calculator");
+        calculator.add(TestFootprint.LOCATOR, "com.google.android.calculator:id/digit_2");
+        calculator.add(TestFootprint.LOCATOR, "com.google.android.calculator:id/eq");
+        footprints.put("tests.CalculatorTest#addTwoNumbers", calculator);
+
+        TestFootprint gestures = new TestFootprint();
+        gestures.add(TestFootprint.SCREEN, ".Settings");
+        gestures.add(TestFootprint.LOCATOR, "new UiScrollable(new UiSelector().scrollable(true))");
+        footprints.put("tests.GestureExamplesTest#scrollToElementUsingUiAutomator", gestures);
+
+        return footprints;
+    }
+
+    @Test
+    public void selectsOnlyTestsTouchingChangedLocators() {
+        Set<String> selected = new ImpactAnalyzer(footprints()).select(List.of("digit_2"));
+
+        Assert.assertEquals(selected, Set.of("tests.CalculatorTest#addTwoNumbers"));
+    }
+
+    @Test
+    public void selectsByScreenAndPackage() {
+        ImpactAnalyzer analyzer = new ImpactAnalyzer(footprints());
+
+        Assert.assertEquals(analyzer.select(List.of("com.android.settings.Settings")),
+                Set.of("tests.GestureExamplesTest#scrollToElementUsingUiAutomator"));
+        Assert.assertEquals(analyzer.select(List.of("com.google.android.calculator")),
+                Set.of("tests.CalculatorTest#addTwoNumbers"));
+        Assert.assertTrue(analyzer.select(List.of("op_divide")).isEmpty());
+    }
+
+    @Test
+    public void reportsChangesNoTestTouches() {
+        ImpactAnalyzer analyzer = new ImpactAnalyzer(footprints());
+
+        Assert.assertEquals(analyzer.unmatched(List.of("digit_2", "op_divide")), Set.of("op_divide"));
+        Assert.assertTrue(analyzer.unmatched(List.of("digit_2", "Settings")).isEmpty());
+    }
+
+    @Test
+    public void suiteIncludesOnlySelectedMethods() {
+        String xml = ImpactAnalyzer.toSuiteXml(Set.of("tests.CalculatorTest#addTwoNumbers"));
+
+        Assert.assertTrue(xml.contains("<class name=\"tests.CalculatorTest\">"));
+        Assert.assertTrue(xml.contains("<include name=\"addTwoNumbers\"/>"));
+        Assert.assertFalse(xml.contains("GestureExamplesTest"));
+        Assert.assertTrue(xml.contains("base.ImpactListener"), "Selected runs should keep recording footprints");
+    }
+
+    @Test
+    public void footprintsSurviveSaveAndLoad() throws Exception {
+        Path file = Files.createTempFile("footprints", ".tsv");
+        try {
+            FootprintStore.save(file, footprints());
+            Map<String, TestFootprint> loaded = FootprintStore.load(file);
+
+            Assert.assertEquals(loaded.keySet(), footprints().keySet());
+            Assert.assertEquals(loaded.get("tests.GestureExamplesTest#scrollToElementUsingUiAutomator").locators(),
+                    Set.of("new UiScrollable(new UiSelector().scrollable(true))"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void emptyFootprintDoesNotReplaceRecordedOne() throws Exception {
+        Path file = Files.createTempFile("footprints", ".tsv");
+        try {
+            FootprintStore.save(file, footprints());
+            // The test failed before sending any command
+            ImpactRecorder.begin("tests.CalculatorTest#addTwoNumbers");
+            ImpactRecorder.end();
+            ImpactRecorder.save(file);
+
+            Assert.assertTrue(FootprintStore.load(file).get("tests.CalculatorTest#addTwoNumbers")
+                    .locators().contains("com.google.android.calculator:id/eq"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void changedScreenSelectsTestsThatOpenedIt() throws Exception {
+        StubAppiumServer server = new StubAppiumServer();
+        server.start();
+        server.register("com.google.android.calculator:id/digit_2", "digit-2", "2");
+        server.register("com.android.settings:id/search", "search", "");
+        AndroidDriver driver = new AndroidDriver(new RecordingCommandExecutor(server.getUrl()),
+                new ImmutableCapabilities("platformName", "Android",
+                        "appium:appPackage", "com.google.android.calculator",
+                        "appium:appActivity", "com.android.calculator2.Calculator"));
+        Path file = Files.createTempFile("footprints", ".tsv");
+        try {
+            ImpactRecorder.begin("tests.Screens#calculator");
+            driver.activateApp("com.google.android.calculator");
+            driver.findElement(AppiumBy.id("com.google.android.calculator:id/digit_2"));
+            ImpactRecorder.end();
+            ImpactRecorder.begin("tests.Screens#settings");
+            driver.findElement(AppiumBy.id("com.android.settings:id/search"));
+            ImpactRecorder.end();
+            ImpactRecorder.save(file);
+
+            ImpactAnalyzer analyzer = new ImpactAnalyzer(FootprintStore.load(file));
+            Set<String> selected = analyzer.select(List.of("Calculator"));
+            Assert.assertTrue(selected.contains("tests.Screens#calculator"), selected.toString());
+            Assert.assertFalse(selected.contains("tests.Screens#settings"), selected.toString());
+            Assert.assertTrue(analyzer.unmatched(List.of("Calculator")).isEmpty(),
+                    "A changed launch screen should not fall back to the full suite");
+        } finally {
+            driver.quit();
+            server.stop();
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package tests;
+
+import com.appium.retry.FailureClass;
+import com.appium.retry.FlakeStats;
+import com.appium.retry.RetryPolicy;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RetryPolicyTest - Verifies failure classification, per-class budgets and flake history.
+ */
+public class RetryPolicyTest {
+
+    private RetryPolicy policy() {
+        Map<FailureClass, Integer> budgets = new EnumMap<>(FailureClass.class);
+        budgets.put(FailureClass.TRANSPORT, 2);
+        budgets.put(FailureClass.STALE_ELEMENT, 1);
+        return new RetryPolicy(budgets, Duration.ZERO);
+    }
+
+    @Test
+    public void failuresAreClassifiedThroughTheCauseChain() {
+        Assert.assertEquals(FailureClass.of(new UnreachableBrowserException("down")), FailureClass.TRANSPORT);
+        Assert.assertEquals(FailureClass.of(new WebDriverException(new ConnectException("refused"))), FailureClass.TRANSPORT);
+        Assert.assertEquals(FailureClass.of(new StaleElementReferenceException("stale")), FailureClass.STALE_ELEMENT);
+        Assert.assertEquals(FailureClass.of(new NoSuchElementException("missing")), FailureClass.NO_SUCH_ELEMENT);
+        Assert.assertEquals(FailureClass.of(new NoSuchSessionException("gone")), FailureClass.SESSION_DEAD);
+        Assert.assertEquals(FailureClass.of(new AssertionError("5 != 6")), FailureClass.OTHER);
+    }
+
+    @Test
+    public void transportFailuresAreRetriedWithinBudget() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy().call(() -> {
+            if (calls.incrementAndGet() < 3) throw new UnreachableBrowserException("blip");
+            return "ok";
+        });
+
+        Assert.assertEquals(result, "ok");
+        Assert.assertEquals(calls.get(), 3);
+    }
+
+    @Test
+    public void actionIsNotReplayedAfterLostReply() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Assert.assertThrows(WebDriverException.class, () -> policy().runAction(() -> {
+            calls.incrementAndGet();
+            throw new WebDriverException(new SocketTimeoutException("read timed out"));
+        }));
+        Assert.assertEquals(calls.get(), 1, "A click whose reply was lost may already have happened");
+    }
+
+    @Test
+    public void actionIsRetriedWhenItNeverReachedTheServer() {
+        AtomicInteger calls = new AtomicInteger();
+
+        policy().runAction(() -> {
+            if (calls.incrementAndGet() < 2) throw new WebDriverException(new ConnectException("refused"));
+        });
+        Assert.assertEquals(calls.get(), 2);
+    }
+
+    @Test
+    public void missingElementFailsWithoutRetry() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Assert.assertThrows(NoSuchElementException.class, () -> policy().run(() -> {
+            calls.incrementAndGet();
+            throw new NoSuchElementException("missing");
+        }));
+        Assert.assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void budgetsAreTrackedPerFailureClass() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Assert.assertThrows(StaleElementReferenceException.class, () -> policy().run(() -> {
+            int call = calls.incrementAndGet();
+            if (call <= 2) throw new UnreachableBrowserException("blip");
+            throw new StaleElementReferenceException("stale");
+        }));
+        Assert.assertEquals(calls.get(), 4, "2 transport retries + 1 stale retry + final failure");
+    }
+
+    @Test
+    public void flakeHistoryIsPersistedAndClassified() throws Exception {
+        Path file = Files.createTempFile("flake-stats", ".tsv");
+        try {
+            FlakeStats stats = new FlakeStats();
+            for (int i = 0; i < 4; i++) {
+                stats.recordPass("tests.A#flaky", i % 2 == 0);
+                stats.recordFailure("tests.B#broken");
+            }
+            stats.save(file);
+
+            FlakeStats loaded = new FlakeStats();
+            loaded.load(file);
+            Assert.assertEquals(loaded.get("tests.A#flaky").flakeRate(), 0.5);
+            Assert.assertTrue(loaded.isKnownFlaky("tests.A#flaky"));
+            Assert.assertFalse(loaded.isKnownBroken("tests.A#flaky"));
+            Assert.assertTrue(loaded.isKnownBroken("tests.B#broken"));
+            Assert.assertFalse(loaded.isKnownFlaky("tests.C#unknown"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void concurrentRunsSharingTheFileAddUp() throws Exception {
+        Path file = Files.createTempFile("flake-stats", ".tsv");
+        try {
+            // Two device runs of the same build, each started from the same history
+            FlakeStats deviceA = new FlakeStats();
+            FlakeStats deviceB = new FlakeStats();
+            deviceA.recordPass("tests.A#test", false);
+            deviceB.recordPass("tests.A#test", true);
+            deviceB.recordFailure("tests.B#test");
+            deviceA.save(file);
+            deviceB.save(file);
+
+            FlakeStats loaded = new FlakeStats();
+            loaded.load(file);
+            Assert.assertEquals(loaded.get("tests.A#test").runs(), 2);
+            Assert.assertEquals(loaded.get("tests.A#test").flakyPasses(), 1);
+            Assert.assertEquals(loaded.get("tests.B#test").consecutiveFailures(), 1);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".lock"));
+        }
+    }
+
+    @Test
+    public void knownBrokenTestIsProbedPeriodically() {
+        FlakeStats stats = new FlakeStats();
+        for (int i = 0; i < 3; i++) {
+            stats.recordFailure("tests.B#broken");
+        }
+
+        int skipped = 0;
+        while (stats.skipAsBroken("tests.B#broken")) {
+            skipped++;
+        }
+        Assert.assertEquals(skipped, 4, "Every 5th run should be a probe");
+
+        stats.recordPass("tests.B#broken", false);
+        Assert.assertFalse(stats.isKnownBroken("tests.B#broken"));
+        Assert.assertEquals(stats.get("tests.B#broken").skipsSinceRun(), 0);
+    }
+
+    @Test
+    public void historyWithoutSkipColumnIsLoaded() throws Exception {
+        Path file = Files.createTempFile("flake-stats", ".tsv");
+        try {
+            Files.writeString(file, "tests.B#broken\t3\t0\t0\t3\n");
+            FlakeStats loaded = new FlakeStats();
+            loaded.load(file);
+
+            Assert.assertTrue(loaded.isKnownBroken("tests.B#broken"));
+            Assert.assertEquals(loaded.get("tests.B#broken").skipsSinceRun(), 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}